@@ -0,0 +1,13 @@
+#!/bin/bash
+
+# Run the JMH benchmarks with the GC profiler; extra JMH options can be passed as arguments,
+# e.g. ./bin/benchmark.sh -p historySize=100000 addTransactionAndDetectFraud
+mvn -Pbenchmark test-compile exec:exec -Djmh.args="$*"
+
+# Check if the command succeeded
+if [ $? -eq 0 ]; then
+    echo "Benchmarks completed successfully."
+else
+    echo "Benchmarks failed."
+    exit 1
+fi
@@ -0,0 +1,13 @@
+#!/bin/bash
+
+# Replay a file of binary transaction frames through the fraud engine and report records per second;
+# generate a synthetic feed first with ./bin/replay.sh --generate <frames-file> <count> <accounts>
+mvn -q compile exec:java -Dexec.mainClass=domain.TransactionReplay -Dexec.args="$*"
+
+# Check if the command succeeded
+if [ $? -eq 0 ]; then
+    echo "Replay completed successfully."
+else
+    echo "Replay failed."
+    exit 1
+fi
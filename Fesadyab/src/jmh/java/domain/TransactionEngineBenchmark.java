@@ -0,0 +1,89 @@
+package domain;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import util.TransactionFaker;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionEngineBenchmark {
+    private static final int INCOMING_TRANSACTIONS = 4_096;
+
+    @Param({ "1000", "100000", "1000000" })
+    int historySize;
+
+    @Param({ "10", "1000", "100000" })
+    int accountCount;
+
+    @Param({ "0.1", "0.5", "0.9" })
+    double debitRatio;
+
+    private TransactionEngine transactionEngine;
+    private Transaction[] incomingTransactions;
+    private long nextTransactionId;
+    private int next;
+
+    private Transaction createTransaction(Random random) {
+        Transaction transaction = TransactionFaker.createTransaction(random.nextInt(accountCount),
+            10_000 + random.nextInt(90_000), random.nextDouble() < debitRatio);
+        transaction.setTransactionId(nextTransactionId++);
+        return transaction;
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Random random = new Random(historySize ^ accountCount);
+        nextTransactionId = 0;
+        next = 0;
+
+        transactionEngine = new TransactionEngine();
+        for (var i = 0; i < historySize; i++) {
+            transactionEngine.addTransactionAndDetectFraud(createTransaction(random));
+        }
+
+        incomingTransactions = new Transaction[INCOMING_TRANSACTIONS];
+        for (var i = 0; i < INCOMING_TRANSACTIONS; i++) {
+            incomingTransactions[i] = createTransaction(random);
+        }
+    }
+
+    @Benchmark
+    public int addTransactionAndDetectFraud() {
+        Transaction transaction = incomingTransactions[next++ & (INCOMING_TRANSACTIONS - 1)];
+        transaction.setTransactionId(nextTransactionId++);
+        return transactionEngine.addTransactionAndDetectFraud(transaction);
+    }
+
+    @Benchmark
+    public int getAverageTransactionAmountByAccount() {
+        return transactionEngine.getAverageTransactionAmountByAccount(next++ % accountCount);
+    }
+
+    @Benchmark
+    public int getTransactionPatternAboveThreshold() {
+        return transactionEngine.getTransactionPatternAboveThreshold(transactionEngine.THRESHOLD);
+    }
+
+    @Benchmark
+    public int scanTransactionPatternAboveThreshold() {
+        return transactionEngine.scanTransactionPatternAboveThreshold(transactionEngine.THRESHOLD);
+    }
+}
@@ -0,0 +1,247 @@
+package domain;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+class AccountAggregates {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final LongIntHashMap slots = new LongIntHashMap();
+    private int[] accountIds;
+    private int[] counts;
+    private long[] sums;
+    private int[] minimums;
+    private int[] maximums;
+    private double[] means;
+    private double[] squaredDeviations;
+    private MonotonicQueue[] minimumQueues;
+    private MonotonicQueue[] maximumQueues;
+    private final boolean evictable;
+    private int size;
+
+    AccountAggregates() {
+        this(false);
+    }
+
+    AccountAggregates(boolean evictable) {
+        this.evictable = evictable;
+        accountIds = new int[INITIAL_CAPACITY];
+        counts = new int[INITIAL_CAPACITY];
+        sums = new long[INITIAL_CAPACITY];
+        minimums = new int[INITIAL_CAPACITY];
+        maximums = new int[INITIAL_CAPACITY];
+        means = new double[INITIAL_CAPACITY];
+        squaredDeviations = new double[INITIAL_CAPACITY];
+        minimumQueues = evictable ? new MonotonicQueue[INITIAL_CAPACITY] : null;
+        maximumQueues = evictable ? new MonotonicQueue[INITIAL_CAPACITY] : null;
+    }
+
+    void add(int accountId, int amount) {
+        var slot = find(accountId);
+        if (slot < 0) {
+            slot = append(accountId);
+            minimums[slot] = amount;
+            maximums[slot] = amount;
+            if (evictable) {
+                minimumQueues[slot] = MonotonicQueue.minimum();
+                maximumQueues[slot] = MonotonicQueue.maximum();
+            }
+        } else {
+            minimums[slot] = Math.min(minimums[slot], amount);
+            maximums[slot] = Math.max(maximums[slot], amount);
+        }
+        if (evictable) {
+            minimumQueues[slot].add(amount);
+            maximumQueues[slot].add(amount);
+        }
+
+        counts[slot]++;
+        sums[slot] += amount;
+
+        var delta = amount - means[slot];
+        means[slot] += delta / counts[slot];
+        squaredDeviations[slot] += delta * (amount - means[slot]);
+    }
+
+    void merge(AccountAggregates deltas) {
+        if (evictable) {
+            throw new IllegalStateException("evictable account aggregates need every amount");
+        }
+
+        for (var row = 0; row < deltas.size; row++) {
+            var slot = find(deltas.accountIds[row]);
+            if (slot < 0) {
+                slot = append(deltas.accountIds[row]);
+                minimums[slot] = deltas.minimums[row];
+                maximums[slot] = deltas.maximums[row];
+            } else {
+                minimums[slot] = Math.min(minimums[slot], deltas.minimums[row]);
+                maximums[slot] = Math.max(maximums[slot], deltas.maximums[row]);
+            }
+
+            var count = counts[slot] + deltas.counts[row];
+            var delta = deltas.means[row] - means[slot];
+            squaredDeviations[slot] += deltas.squaredDeviations[row]
+                + delta * delta * counts[slot] * deltas.counts[row] / count;
+            means[slot] += delta * deltas.counts[row] / count;
+            counts[slot] = count;
+            sums[slot] += deltas.sums[row];
+        }
+    }
+
+    void remove(int accountId, int amount) {
+        if (!evictable) {
+            throw new IllegalStateException("account aggregates were not created evictable");
+        }
+        var slot = find(accountId);
+        if (slot < 0) {
+            throw new IllegalArgumentException("account " + accountId + " has no transactions");
+        }
+
+        if (counts[slot] == 1) {
+            delete(slot);
+            return;
+        }
+
+        var mean = means[slot];
+        counts[slot]--;
+        sums[slot] -= amount;
+        means[slot] = (mean * (counts[slot] + 1) - amount) / counts[slot];
+        squaredDeviations[slot] = Math.max(0, squaredDeviations[slot] - (amount - means[slot]) * (amount - mean));
+
+        minimumQueues[slot].evict(amount);
+        maximumQueues[slot].evict(amount);
+        minimums[slot] = minimumQueues[slot].peek();
+        maximums[slot] = maximumQueues[slot].peek();
+    }
+
+    int getCount(int accountId) {
+        var slot = find(accountId);
+        return slot < 0 ? 0 : counts[slot];
+    }
+
+    long getSum(int accountId) {
+        var slot = find(accountId);
+        return slot < 0 ? 0 : sums[slot];
+    }
+
+    int getAverage(int accountId) {
+        var slot = find(accountId);
+        return slot < 0 ? 0 : (int) (sums[slot] / counts[slot]);
+    }
+
+    int getMinimum(int accountId) {
+        var slot = find(accountId);
+        return slot < 0 ? 0 : minimums[slot];
+    }
+
+    int getMaximum(int accountId) {
+        var slot = find(accountId);
+        return slot < 0 ? 0 : maximums[slot];
+    }
+
+    double getVariance(int accountId) {
+        var slot = find(accountId);
+        return slot < 0 ? 0 : squaredDeviations[slot] / counts[slot];
+    }
+
+    int size() {
+        return size;
+    }
+
+    long estimateMemoryBytes() {
+        var bytes = slots.estimateMemoryBytes()
+            + (long) accountIds.length * (4 * Integer.BYTES + Long.BYTES + 2 * Double.BYTES);
+        if (evictable) {
+            for (var slot = 0; slot < size; slot++) {
+                bytes += minimumQueues[slot].estimateMemoryBytes() + maximumQueues[slot].estimateMemoryBytes();
+            }
+        }
+        return bytes;
+    }
+
+    void writeTo(DataOutput output) throws IOException {
+        output.writeInt(size);
+        for (var slot = 0; slot < size; slot++) {
+            output.writeInt(accountIds[slot]);
+            output.writeInt(counts[slot]);
+            output.writeLong(sums[slot]);
+            output.writeInt(minimums[slot]);
+            output.writeInt(maximums[slot]);
+            output.writeDouble(means[slot]);
+            output.writeDouble(squaredDeviations[slot]);
+        }
+    }
+
+    static AccountAggregates readFrom(DataInput input) throws IOException {
+        var accountAggregates = new AccountAggregates();
+        var accounts = input.readInt();
+        for (var i = 0; i < accounts; i++) {
+            var slot = accountAggregates.append(input.readInt());
+            accountAggregates.counts[slot] = input.readInt();
+            accountAggregates.sums[slot] = input.readLong();
+            accountAggregates.minimums[slot] = input.readInt();
+            accountAggregates.maximums[slot] = input.readInt();
+            accountAggregates.means[slot] = input.readDouble();
+            accountAggregates.squaredDeviations[slot] = input.readDouble();
+        }
+        return accountAggregates;
+    }
+
+    private int find(int accountId) {
+        return slots.get(accountId, -1);
+    }
+
+    private int append(int accountId) {
+        if (size == accountIds.length) {
+            grow(size * 2);
+        }
+        var slot = size++;
+        slots.put(accountId, slot);
+        accountIds[slot] = accountId;
+        return slot;
+    }
+
+    private void delete(int slot) {
+        slots.remove(accountIds[slot]);
+        var last = --size;
+        if (slot != last) {
+            move(last, slot);
+            slots.put(accountIds[slot], slot);
+        }
+        counts[last] = 0;
+        sums[last] = 0;
+        means[last] = 0;
+        squaredDeviations[last] = 0;
+        minimumQueues[last] = null;
+        maximumQueues[last] = null;
+    }
+
+    private void move(int from, int to) {
+        accountIds[to] = accountIds[from];
+        counts[to] = counts[from];
+        sums[to] = sums[from];
+        minimums[to] = minimums[from];
+        maximums[to] = maximums[from];
+        means[to] = means[from];
+        squaredDeviations[to] = squaredDeviations[from];
+        minimumQueues[to] = minimumQueues[from];
+        maximumQueues[to] = maximumQueues[from];
+    }
+
+    private void grow(int capacity) {
+        accountIds = Arrays.copyOf(accountIds, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+        sums = Arrays.copyOf(sums, capacity);
+        minimums = Arrays.copyOf(minimums, capacity);
+        maximums = Arrays.copyOf(maximums, capacity);
+        means = Arrays.copyOf(means, capacity);
+        squaredDeviations = Arrays.copyOf(squaredDeviations, capacity);
+        if (evictable) {
+            minimumQueues = Arrays.copyOf(minimumQueues, capacity);
+            maximumQueues = Arrays.copyOf(maximumQueues, capacity);
+        }
+    }
+}
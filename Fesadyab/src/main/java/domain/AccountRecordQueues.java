@@ -0,0 +1,83 @@
+package domain;
+
+import java.util.Arrays;
+
+class AccountRecordQueues {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NONE = -1;
+
+    private final LongIntHashMap slots = new LongIntHashMap();
+    private int[] heads;
+    private int[] tails;
+    private int[] counts;
+    private int[] next = new int[INITIAL_CAPACITY];
+    private int size;
+
+    AccountRecordQueues() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    void append(int accountId, int index) {
+        if (index >= next.length) {
+            next = Arrays.copyOf(next, Math.max(index + 1, next.length + (next.length >> 1)));
+        }
+        next[index] = NONE;
+
+        var slot = slots.get(accountId, NONE);
+        if (slot == NONE) {
+            if (size == heads.length) {
+                heads = Arrays.copyOf(heads, size * 2);
+                tails = Arrays.copyOf(tails, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            slot = size++;
+            slots.put(accountId, slot);
+            heads[slot] = NONE;
+        }
+        if (heads[slot] == NONE) {
+            heads[slot] = index;
+        } else {
+            next[tails[slot]] = index;
+        }
+        tails[slot] = index;
+        counts[slot]++;
+    }
+
+    int getCount(int accountId) {
+        var slot = slots.get(accountId, NONE);
+        return slot == NONE ? 0 : counts[slot];
+    }
+
+    int getOldest(int accountId) {
+        var slot = slots.get(accountId, NONE);
+        return slot == NONE ? NONE : heads[slot];
+    }
+
+    int removeOldest(int accountId) {
+        var slot = slots.get(accountId, NONE);
+        if (slot == NONE || counts[slot] == 0) {
+            throw new IllegalStateException("account " + accountId + " has no retained transactions");
+        }
+        var index = heads[slot];
+        heads[slot] = next[index];
+        counts[slot]--;
+        return index;
+    }
+
+    void clear() {
+        slots.clear();
+        allocate(INITIAL_CAPACITY);
+        size = 0;
+    }
+
+    long estimateMemoryBytes() {
+        return slots.estimateMemoryBytes() + (long) heads.length * 3 * Integer.BYTES
+            + (long) next.length * Integer.BYTES;
+    }
+
+    private void allocate(int capacity) {
+        heads = new int[capacity];
+        tails = new int[capacity];
+        counts = new int[capacity];
+    }
+}
@@ -0,0 +1,16 @@
+package domain;
+
+class ArithmeticPatternRule implements FraudRule {
+    static final int ORDER = 200;
+
+    @Override
+    public int score(FraudContext context, long transactionId, int accountId, int amount, boolean isDebit,
+        long timestamp) {
+        return context.getTransactionPattern();
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,100 @@
+package domain;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+
+public class ColumnarTransactionHistory implements TransactionHistory {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] transactionIds;
+    private int[] accountIds;
+    private int[] amounts;
+    private boolean[] debits;
+    private int size;
+
+    public ColumnarTransactionHistory() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public ColumnarTransactionHistory(int capacity) {
+        transactionIds = new long[capacity];
+        accountIds = new int[capacity];
+        amounts = new int[capacity];
+        debits = new boolean[capacity];
+    }
+
+    @Override
+    public void add(long transactionId, int accountId, int amount, boolean isDebit) {
+        if (size == transactionIds.length) {
+            grow(Math.max(size + (size >> 1), INITIAL_CAPACITY));
+        }
+
+        transactionIds[size] = transactionId;
+        accountIds[size] = accountId;
+        amounts[size] = amount;
+        debits[size] = isDebit;
+        size++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long getTransactionId(int index) {
+        Objects.checkIndex(index, size);
+        return transactionIds[index];
+    }
+
+    @Override
+    public int getAccountId(int index) {
+        Objects.checkIndex(index, size);
+        return accountIds[index];
+    }
+
+    @Override
+    public int getAmount(int index) {
+        Objects.checkIndex(index, size);
+        return amounts[index];
+    }
+
+    @Override
+    public boolean isDebit(int index) {
+        Objects.checkIndex(index, size);
+        return debits[index];
+    }
+
+    @Override
+    public void ensureCapacity(int capacity) {
+        if (capacity > transactionIds.length) {
+            grow(capacity);
+        }
+    }
+
+    @Override
+    public void removeAll(BitSet indices) {
+        var retained = 0;
+        for (var i = indices.nextClearBit(0); i < size; i = indices.nextClearBit(i + 1)) {
+            transactionIds[retained] = transactionIds[i];
+            accountIds[retained] = accountIds[i];
+            amounts[retained] = amounts[i];
+            debits[retained] = debits[i];
+            retained++;
+        }
+        size = retained;
+    }
+
+    @Override
+    public long estimateMemoryBytes() {
+        return (long) transactionIds.length * (Long.BYTES + 2 * Integer.BYTES + 1);
+    }
+
+    private void grow(int capacity) {
+        transactionIds = Arrays.copyOf(transactionIds, capacity);
+        accountIds = Arrays.copyOf(accountIds, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        debits = Arrays.copyOf(debits, capacity);
+    }
+}
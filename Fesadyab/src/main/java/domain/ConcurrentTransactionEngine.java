@@ -0,0 +1,99 @@
+package domain;
+
+import java.util.ArrayList;
+
+public class ConcurrentTransactionEngine {
+    private final AccountStripe[] accountStripes;
+    private final TransactionIdSet[] idStripes;
+    private final PatternDetector patternDetector;
+    final int THRESHOLD = 1000;
+
+    public ConcurrentTransactionEngine() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    public ConcurrentTransactionEngine(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("stripes must be positive");
+        }
+
+        var capacity = Integer.highestOneBit(stripes);
+        if (capacity < stripes) {
+            capacity <<= 1;
+        }
+
+        accountStripes = new AccountStripe[capacity];
+        idStripes = new TransactionIdSet[capacity];
+        for (var i = 0; i < capacity; i++) {
+            accountStripes[i] = new AccountStripe();
+            idStripes[i] = new TransactionIdSet();
+        }
+        patternDetector = new PatternDetector(THRESHOLD);
+    }
+
+    public int addTransactionAndDetectFraud(Transaction txn) {
+        var idStripe = idStripes[stripeOf(Long.hashCode(txn.transactionId))];
+        synchronized (idStripe) {
+            if (!idStripe.add(txn.transactionId)) {
+                return 0;
+            }
+        }
+
+        var accountStripe = accountStripes[stripeOf(txn.accountId)];
+        synchronized (accountStripe) {
+            var fraudScore = TransactionEngine.excessiveDebitScore(
+                accountStripe.accountAggregates.getAverage(txn.accountId), txn.amount, txn.isDebit);
+
+            synchronized (patternDetector) {
+                if (fraudScore == 0) {
+                    fraudScore = patternDetector.getPattern();
+                }
+                patternDetector.advance(txn.transactionId, txn.amount);
+            }
+
+            accountStripe.transactionHistory.add(txn);
+            accountStripe.accountAggregates.add(txn.accountId, txn.amount);
+            return fraudScore;
+        }
+    }
+
+    public int getAverageTransactionAmountByAccount(int accountId) {
+        var accountStripe = accountStripes[stripeOf(accountId)];
+        synchronized (accountStripe) {
+            return accountStripe.accountAggregates.getAverage(accountId);
+        }
+    }
+
+    public int getTransactionCountByAccount(int accountId) {
+        var accountStripe = accountStripes[stripeOf(accountId)];
+        synchronized (accountStripe) {
+            return accountStripe.accountAggregates.getCount(accountId);
+        }
+    }
+
+    public int getTransactionPattern() {
+        synchronized (patternDetector) {
+            return patternDetector.getPattern();
+        }
+    }
+
+    public int getTransactionCount() {
+        var count = 0;
+        for (AccountStripe accountStripe : accountStripes) {
+            synchronized (accountStripe) {
+                count += accountStripe.transactionHistory.size();
+            }
+        }
+        return count;
+    }
+
+    private int stripeOf(int key) {
+        var h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (accountStripes.length - 1);
+    }
+
+    private static class AccountStripe {
+        final ArrayList<Transaction> transactionHistory = new ArrayList<>();
+        final AccountAggregates accountAggregates = new AccountAggregates();
+    }
+}
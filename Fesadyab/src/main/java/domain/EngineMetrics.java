@@ -0,0 +1,48 @@
+package domain;
+
+import java.util.List;
+
+public interface EngineMetrics {
+
+    EngineMetrics DISABLED = new EngineMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void recordDeduplication(long nanos, boolean duplicate) {
+        }
+
+        @Override
+        public void recordAggregateLookup(long nanos, boolean excessiveDebit) {
+        }
+
+        @Override
+        public void recordPatternCheck(long nanos, boolean patternHit) {
+        }
+
+        @Override
+        public void recordIngested(int historySize) {
+        }
+    };
+
+    boolean isEnabled();
+
+    void recordDeduplication(long nanos, boolean duplicate);
+
+    void recordAggregateLookup(long nanos, boolean excessiveDebit);
+
+    void recordPatternCheck(long nanos, boolean patternHit);
+
+    default void bindRules(List<FraudRule> rules) {
+    }
+
+    default void recordRuleCheck(int ruleIndex, long nanos, boolean hit) {
+    }
+
+    void recordIngested(int historySize);
+
+    default void recordUnconfirmedFilterHit() {
+    }
+}
@@ -0,0 +1,104 @@
+package domain;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+
+class EngineSnapshot {
+    private static final int MAGIC = 0x46534442;
+    private static final int VERSION = 3;
+
+    final long journalPosition;
+    final AccountAggregates accountAggregates;
+    final TransactionIdSet transactionIds;
+    final PatternDetector patternDetector;
+    private final String[] ruleNames;
+    private final byte[][] ruleStates;
+
+    EngineSnapshot(long journalPosition, AccountAggregates accountAggregates, TransactionIdSet transactionIds,
+        PatternDetector patternDetector, String[] ruleNames, byte[][] ruleStates) {
+        this.journalPosition = journalPosition;
+        this.accountAggregates = accountAggregates;
+        this.transactionIds = transactionIds;
+        this.patternDetector = patternDetector;
+        this.ruleNames = ruleNames;
+        this.ruleStates = ruleStates;
+    }
+
+    static EngineSnapshot capture(long journalPosition, AccountAggregates accountAggregates,
+        TransactionIdSet transactionIds, PatternDetector patternDetector, List<FraudRule> rules) throws IOException {
+        var ruleNames = new String[rules.size()];
+        var ruleStates = new byte[rules.size()][];
+        for (var i = 0; i < ruleNames.length; i++) {
+            var state = new ByteArrayOutputStream();
+            try (var output = new DataOutputStream(state)) {
+                rules.get(i).writeState(output);
+            }
+            ruleNames[i] = rules.get(i).getName();
+            ruleStates[i] = state.toByteArray();
+        }
+        return new EngineSnapshot(journalPosition, accountAggregates, transactionIds, patternDetector, ruleNames,
+            ruleStates);
+    }
+
+    boolean matchesRules(List<FraudRule> rules) {
+        return Arrays.equals(ruleNames, rules.stream().map(FraudRule::getName).toArray(String[]::new));
+    }
+
+    void restoreRules(List<FraudRule> rules) throws IOException {
+        for (var i = 0; i < ruleStates.length; i++) {
+            try (var input = new DataInputStream(new ByteArrayInputStream(ruleStates[i]))) {
+                rules.get(i).readState(input);
+            }
+        }
+    }
+
+    void write(Path path) throws IOException {
+        var temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeLong(journalPosition);
+            accountAggregates.writeTo(output);
+            transactionIds.writeTo(output);
+            patternDetector.writeTo(output);
+            output.writeInt(ruleNames.length);
+            for (var i = 0; i < ruleNames.length; i++) {
+                output.writeUTF(ruleNames[i]);
+                output.writeInt(ruleStates[i].length);
+                output.write(ruleStates[i]);
+            }
+        }
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static EngineSnapshot read(Path path) throws IOException {
+        try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw new IOException("unsupported engine snapshot: " + path);
+            }
+            var journalPosition = input.readLong();
+            var accountAggregates = AccountAggregates.readFrom(input);
+            var transactionIds = TransactionIdSet.readFrom(input);
+            var patternDetector = PatternDetector.readFrom(input);
+            var ruleNames = new String[input.readInt()];
+            var ruleStates = new byte[ruleNames.length][];
+            for (var i = 0; i < ruleNames.length; i++) {
+                ruleNames[i] = input.readUTF();
+                ruleStates[i] = new byte[input.readInt()];
+                input.readFully(ruleStates[i]);
+            }
+            return new EngineSnapshot(journalPosition, accountAggregates, transactionIds, patternDetector, ruleNames,
+                ruleStates);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package domain;
+
+import java.util.Arrays;
+
+class EvictingPatternDetector {
+    static final int NO_RUN = -1;
+    static final int NO_RECORD = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int threshold;
+    private boolean started;
+    private int baselineAmount;
+
+    private int[] values = new int[INITIAL_CAPACITY];
+    private int[] counts = new int[INITIAL_CAPACITY];
+    private int[] previous = new int[INITIAL_CAPACITY];
+    private int[] next = new int[INITIAL_CAPACITY];
+    private int[] parents = new int[INITIAL_CAPACITY];
+    private int[] firstRecords = new int[INITIAL_CAPACITY];
+    private int runCount;
+    private int head = NO_RUN;
+    private int tail = NO_RUN;
+
+    private int[] nextRecords = new int[INITIAL_CAPACITY];
+    private int[] previousRecords = new int[INITIAL_CAPACITY];
+    private int lastRecord = NO_RECORD;
+
+    EvictingPatternDetector(int threshold) {
+        this.threshold = threshold;
+    }
+
+    int append(int amount, int index) {
+        if (!started) {
+            started = true;
+            baselineAmount = amount;
+            return NO_RUN;
+        }
+        if (amount <= threshold) {
+            return NO_RUN;
+        }
+
+        if (index >= nextRecords.length) {
+            var capacity = Math.max(index + 1, nextRecords.length + (nextRecords.length >> 1));
+            nextRecords = Arrays.copyOf(nextRecords, capacity);
+            previousRecords = Arrays.copyOf(previousRecords, capacity);
+        }
+        previousRecords[index] = lastRecord;
+        nextRecords[index] = NO_RECORD;
+        if (lastRecord != NO_RECORD) {
+            nextRecords[lastRecord] = index;
+        }
+        lastRecord = index;
+
+        if (tail != NO_RUN && values[tail] == amount) {
+            counts[tail]++;
+            return tail;
+        }
+
+        if (runCount == values.length) {
+            grow(runCount * 2);
+        }
+        var run = runCount++;
+        values[run] = amount;
+        counts[run] = 1;
+        parents[run] = run;
+        firstRecords[run] = index;
+        previous[run] = tail;
+        next[run] = NO_RUN;
+        if (tail == NO_RUN) {
+            head = run;
+        } else {
+            next[tail] = run;
+        }
+        tail = run;
+        return run;
+    }
+
+    void remove(int run, int index) {
+        var following = nextRecords[index];
+        if (previousRecords[index] != NO_RECORD) {
+            nextRecords[previousRecords[index]] = following;
+        }
+        if (following == NO_RECORD) {
+            lastRecord = previousRecords[index];
+        } else {
+            previousRecords[following] = previousRecords[index];
+        }
+
+        var root = find(run);
+        if (firstRecords[root] == index) {
+            firstRecords[root] = following;
+        }
+        if (--counts[root] > 0) {
+            return;
+        }
+
+        var before = previous[root];
+        var after = next[root];
+        unlink(root);
+        if (before != NO_RUN && after != NO_RUN && values[before] == values[after]) {
+            counts[before] += counts[after];
+            parents[after] = before;
+            unlink(after);
+        }
+    }
+
+    void rebase(int amount, int run, int index) {
+        baselineAmount = amount;
+        if (run != NO_RUN) {
+            remove(run, index);
+        }
+    }
+
+    void clear() {
+        started = false;
+        runCount = 0;
+        head = NO_RUN;
+        tail = NO_RUN;
+        lastRecord = NO_RECORD;
+    }
+
+    int getPattern() {
+        var run = stepRun();
+        if (run == NO_RUN) {
+            return 0;
+        }
+
+        var diff = values[run] - baselineAmount;
+        var following = next[run];
+        if (following == NO_RUN) {
+            return counts[run] == 1 ? diff : 0;
+        }
+        if (counts[run] != 1 || values[following] - values[run] != diff || next[following] != NO_RUN) {
+            return 0;
+        }
+        return diff;
+    }
+
+    int getStepRecord() {
+        var run = stepRun();
+        return run == NO_RUN ? NO_RECORD : firstRecords[run];
+    }
+
+    int getThreshold() {
+        return threshold;
+    }
+
+    long estimateMemoryBytes() {
+        return (long) values.length * 6 * Integer.BYTES + (long) nextRecords.length * 2 * Integer.BYTES;
+    }
+
+    private int stepRun() {
+        if (!started || head == NO_RUN) {
+            return NO_RUN;
+        }
+        return values[head] == baselineAmount ? next[head] : head;
+    }
+
+    private int find(int run) {
+        while (parents[run] != run) {
+            parents[run] = parents[parents[run]];
+            run = parents[run];
+        }
+        return run;
+    }
+
+    private void unlink(int run) {
+        if (previous[run] == NO_RUN) {
+            head = next[run];
+        } else {
+            next[previous[run]] = next[run];
+        }
+        if (next[run] == NO_RUN) {
+            tail = previous[run];
+        } else {
+            previous[next[run]] = previous[run];
+        }
+    }
+
+    private void grow(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+        previous = Arrays.copyOf(previous, capacity);
+        next = Arrays.copyOf(next, capacity);
+        parents = Arrays.copyOf(parents, capacity);
+        firstRecords = Arrays.copyOf(firstRecords, capacity);
+    }
+}
@@ -0,0 +1,20 @@
+package domain;
+
+class ExcessiveDebitRule implements FraudRule {
+    static final int ORDER = 100;
+
+    @Override
+    public int score(FraudContext context, long transactionId, int accountId, int amount, boolean isDebit,
+        long timestamp) {
+        if (!isDebit) {
+            return 0;
+        }
+        return TransactionEngine.excessiveDebitScore(context.getAverageTransactionAmount(accountId, timestamp),
+            amount, true);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
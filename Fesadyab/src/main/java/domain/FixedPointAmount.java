@@ -0,0 +1,53 @@
+package domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public record FixedPointAmount(long minorUnits) implements Comparable<FixedPointAmount> {
+    public static final int SCALE = 2;
+    public static final FixedPointAmount ZERO = new FixedPointAmount(0);
+
+    public static FixedPointAmount ofMinorUnits(long minorUnits) {
+        return new FixedPointAmount(minorUnits);
+    }
+
+    public static FixedPointAmount parse(String amount) {
+        try {
+            return new FixedPointAmount(new BigDecimal(amount).setScale(SCALE, RoundingMode.UNNECESSARY)
+                .unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("amount is not representable with scale " + SCALE + ": " + amount, e);
+        }
+    }
+
+    static FixedPointAmount average(long sumMinorUnits, long count) {
+        if (count == 0) {
+            return ZERO;
+        }
+        return new FixedPointAmount(BigDecimal.valueOf(sumMinorUnits)
+            .divide(BigDecimal.valueOf(count), 0, RoundingMode.HALF_EVEN)
+            .longValueExact());
+    }
+
+    public FixedPointAmount plus(FixedPointAmount other) {
+        return new FixedPointAmount(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public int toMinorUnitsExact() {
+        return Math.toIntExact(minorUnits);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(FixedPointAmount other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,4 @@
+package domain;
+
+public record FraudAlert(long transactionId, int accountId, int amount, int fraudScore) {
+}
@@ -0,0 +1,10 @@
+package domain;
+
+public interface FraudContext {
+
+    int getAverageTransactionAmount(int accountId, long timestamp);
+
+    int getTransactionCount(int accountId);
+
+    int getTransactionPattern();
+}
@@ -0,0 +1,137 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FraudPipeline implements Flow.Processor<Transaction, FraudAlert> {
+    private static final Transaction END_OF_STREAM = Transaction.builder().build();
+
+    private final ConcurrentTransactionEngine transactionEngine;
+    private final int batchSize;
+    private final int upstreamCredit;
+    private final ExecutorService workers;
+    private final ArrayList<LinkedBlockingQueue<Transaction>> shards = new ArrayList<>();
+    private final AtomicInteger runningWorkers;
+    private final SubmissionPublisher<FraudAlert> alerts;
+
+    private volatile Flow.Subscription subscription;
+    private volatile Throwable failure;
+
+    public FraudPipeline(int workerCount, int batchSize, int bufferCapacity) {
+        this(new ConcurrentTransactionEngine(), workerCount, batchSize, bufferCapacity);
+    }
+
+    public FraudPipeline(ConcurrentTransactionEngine transactionEngine, int workerCount, int batchSize,
+        int bufferCapacity) {
+        if (workerCount <= 0 || batchSize <= 0 || bufferCapacity <= 0) {
+            throw new IllegalArgumentException("workers, batch size and buffer capacity must be positive");
+        }
+
+        this.transactionEngine = transactionEngine;
+        this.batchSize = batchSize;
+        this.upstreamCredit = workerCount * batchSize;
+        this.workers = Executors.newFixedThreadPool(workerCount);
+        this.runningWorkers = new AtomicInteger(workerCount);
+        this.alerts = new SubmissionPublisher<>(ForkJoinPool.commonPool(), bufferCapacity);
+
+        for (var i = 0; i < workerCount; i++) {
+            shards.add(new LinkedBlockingQueue<>());
+        }
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super FraudAlert> subscriber) {
+        alerts.subscribe(subscriber);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+
+        this.subscription = subscription;
+        for (LinkedBlockingQueue<Transaction> shard : shards) {
+            workers.execute(() -> drain(shard));
+        }
+        subscription.request(upstreamCredit);
+    }
+
+    @Override
+    public void onNext(Transaction txn) {
+        shards.get(Math.floorMod(txn.accountId, shards.size())).add(txn);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        failure = throwable;
+        endShards();
+    }
+
+    @Override
+    public void onComplete() {
+        endShards();
+    }
+
+    public ConcurrentTransactionEngine getTransactionEngine() {
+        return transactionEngine;
+    }
+
+    private void endShards() {
+        for (LinkedBlockingQueue<Transaction> shard : shards) {
+            shard.add(END_OF_STREAM);
+        }
+    }
+
+    private void drain(LinkedBlockingQueue<Transaction> shard) {
+        var batch = new ArrayList<Transaction>(batchSize);
+        try {
+            while (true) {
+                batch.add(shard.take());
+                shard.drainTo(batch, batchSize - 1);
+
+                var processed = 0;
+                for (Transaction txn : batch) {
+                    if (txn == END_OF_STREAM) {
+                        return;
+                    }
+
+                    var fraudScore = transactionEngine.addTransactionAndDetectFraud(txn);
+                    if (fraudScore != 0) {
+                        alerts.submit(new FraudAlert(txn.transactionId, txn.accountId, txn.amount, fraudScore));
+                    }
+                    processed++;
+                }
+
+                batch.clear();
+                subscription.request(processed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            failure = e;
+            subscription.cancel();
+            endShards();
+        } finally {
+            if (runningWorkers.decrementAndGet() == 0) {
+                finish();
+            }
+        }
+    }
+
+    private void finish() {
+        if (failure == null) {
+            alerts.close();
+        } else {
+            alerts.closeExceptionally(failure);
+        }
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,28 @@
+package domain;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public interface FraudRule {
+
+    int score(FraudContext context, long transactionId, int accountId, int amount, boolean isDebit, long timestamp);
+
+    default int getOrder() {
+        return 0;
+    }
+
+    default String getName() {
+        return getClass().getName();
+    }
+
+    default void onTransactionAccepted(long transactionId, int accountId, int amount, boolean isDebit,
+        long timestamp) {
+    }
+
+    default void writeState(DataOutput output) throws IOException {
+    }
+
+    default void readState(DataInput input) throws IOException {
+    }
+}
@@ -0,0 +1,52 @@
+package domain;
+
+import java.util.List;
+
+public final class FraudRulePipeline {
+    private final FraudRule[] rules;
+    private final int aggregateRule;
+    private final int patternRule;
+
+    FraudRulePipeline(FraudRule[] rules) {
+        this.rules = rules;
+        var ruleList = List.of(rules);
+        this.aggregateRule = ruleList.indexOf(FraudRuleRegistry.EXCESSIVE_DEBIT);
+        this.patternRule = ruleList.indexOf(FraudRuleRegistry.ARITHMETIC_PATTERN);
+    }
+
+    public List<FraudRule> getRules() {
+        return List.of(rules);
+    }
+
+    int evaluate(FraudContext context, EngineMetrics metrics, long transactionId, int accountId, int amount,
+        boolean isDebit, long timestamp) {
+        var metricsEnabled = metrics.isEnabled();
+        for (var i = 0; i < rules.length; i++) {
+            var startedAt = metricsEnabled ? System.nanoTime() : 0;
+            var fraudScore = rules[i].score(context, transactionId, accountId, amount, isDebit, timestamp);
+            if (metricsEnabled) {
+                record(metrics, i, System.nanoTime() - startedAt, fraudScore != 0);
+            }
+            if (fraudScore != 0) {
+                return fraudScore;
+            }
+        }
+        return 0;
+    }
+
+    private void record(EngineMetrics metrics, int ruleIndex, long nanos, boolean hit) {
+        if (ruleIndex == aggregateRule) {
+            metrics.recordAggregateLookup(nanos, hit);
+        } else if (ruleIndex == patternRule) {
+            metrics.recordPatternCheck(nanos, hit);
+        } else {
+            metrics.recordRuleCheck(ruleIndex, nanos, hit);
+        }
+    }
+
+    void onTransactionAccepted(long transactionId, int accountId, int amount, boolean isDebit, long timestamp) {
+        for (FraudRule rule : rules) {
+            rule.onTransactionAccepted(transactionId, accountId, amount, isDebit, timestamp);
+        }
+    }
+}
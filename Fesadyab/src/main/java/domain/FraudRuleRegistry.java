@@ -0,0 +1,37 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.ServiceLoader;
+
+public class FraudRuleRegistry {
+    public static final FraudRule EXCESSIVE_DEBIT = new ExcessiveDebitRule();
+    public static final FraudRule ARITHMETIC_PATTERN = new ArithmeticPatternRule();
+
+    private final ArrayList<FraudRule> rules = new ArrayList<>();
+
+    public static FraudRuleRegistry withBuiltInRules() {
+        return new FraudRuleRegistry().register(EXCESSIVE_DEBIT).register(ARITHMETIC_PATTERN);
+    }
+
+    public FraudRuleRegistry register(FraudRule rule) {
+        if (rules.contains(rule)) {
+            throw new IllegalArgumentException("fraud rule is already registered: " + rule);
+        }
+        rules.add(rule);
+        return this;
+    }
+
+    public FraudRuleRegistry registerInstalled() {
+        for (FraudRule rule : ServiceLoader.load(FraudRule.class)) {
+            register(rule);
+        }
+        return this;
+    }
+
+    public FraudRulePipeline compile() {
+        var ordered = new ArrayList<>(rules);
+        ordered.sort(Comparator.comparingInt(FraudRule::getOrder));
+        return new FraudRulePipeline(ordered.toArray(new FraudRule[0]));
+    }
+}
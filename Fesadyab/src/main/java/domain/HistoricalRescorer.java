@@ -0,0 +1,224 @@
+package domain;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+import lombok.Builder;
+
+public class HistoricalRescorer {
+    private static final int MAGIC = 0x46534453;
+    private static final int VERSION = 1;
+    private static final int DEFAULT_THRESHOLD = 1000;
+    private static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+    private final int threshold;
+    private final int deduplicationWindow;
+    private final ScoringWindow scoringWindow;
+    private final ForkJoinPool pool;
+    private final int blockSize;
+    private final int partitionCount;
+
+    public HistoricalRescorer() {
+        this(null, 0, null, null, 0);
+    }
+
+    @Builder
+    private HistoricalRescorer(Integer threshold, int deduplicationWindow, ScoringWindow scoringWindow,
+        ForkJoinPool pool, int blockSize) {
+        this.threshold = threshold == null ? DEFAULT_THRESHOLD : threshold;
+        this.deduplicationWindow = deduplicationWindow;
+        this.scoringWindow = scoringWindow == null ? ScoringWindow.allTime() : scoringWindow;
+        if (this.scoringWindow.isTimeBased()) {
+            throw new IllegalArgumentException("history holds no timestamps to rescore a time window");
+        }
+        this.pool = pool == null ? ForkJoinPool.commonPool() : pool;
+        this.blockSize = blockSize == 0 ? DEFAULT_BLOCK_SIZE : blockSize;
+        if (this.blockSize < 0) {
+            throw new IllegalArgumentException("block size must be positive");
+        }
+        this.partitionCount = Integer.highestOneBit(this.pool.getParallelism() * 4 - 1) << 1;
+    }
+
+    public long rescore(TransactionHistory history, Path output) {
+        try (var stream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output)))) {
+            stream.writeInt(MAGIC);
+            stream.writeInt(VERSION);
+            stream.writeInt(history.size());
+            var fraudulent = rescore(history, stream);
+            stream.flush();
+            return fraudulent;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void readScores(Path input, IntConsumer consumer) {
+        try (var stream = new DataInputStream(new BufferedInputStream(Files.newInputStream(input)))) {
+            if (stream.readInt() != MAGIC || stream.readInt() != VERSION) {
+                throw new IOException("unsupported fraud score file: " + input);
+            }
+            var count = stream.readInt();
+            for (var i = 0; i < count; i++) {
+                consumer.accept(readScore(stream));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long rescore(TransactionHistory history, OutputStream output) throws IOException {
+        var transactionIds = new TransactionIdSet(deduplicationWindow);
+        var patternDetector = new PatternDetector(threshold);
+        var partitions = new Partition[partitionCount];
+        for (var p = 0; p < partitionCount; p++) {
+            partitions[p] = new Partition(scoringWindow);
+        }
+
+        var capacity = Math.min(blockSize, history.size());
+        var scores = new int[capacity];
+        var accepted = new boolean[capacity];
+        var order = new int[capacity];
+        var offsets = new int[partitionCount + 1];
+        var fraudulent = 0L;
+
+        for (var start = 0; start < history.size(); start += blockSize) {
+            var end = Math.min(history.size(), start + blockSize);
+
+            Arrays.fill(offsets, 0);
+            for (var i = start; i < end; i++) {
+                var block = i - start;
+                var transactionId = history.getTransactionId(i);
+                accepted[block] = transactionIds.add(transactionId);
+                scores[block] = accepted[block] ? patternDetector.getPattern() : 0;
+                if (accepted[block]) {
+                    patternDetector.advance(transactionId, history.getAmount(i));
+                    offsets[ShardedTransactionEngine.shardOf(history.getAccountId(i), partitionCount) + 1]++;
+                }
+            }
+            for (var p = 0; p < partitionCount; p++) {
+                offsets[p + 1] += offsets[p];
+            }
+            var cursors = offsets.clone();
+            for (var i = start; i < end; i++) {
+                if (accepted[i - start]) {
+                    order[cursors[ShardedTransactionEngine.shardOf(history.getAccountId(i), partitionCount)]++] = i;
+                }
+            }
+
+            pool.invoke(new ScorePartitions(history, partitions, start, scores, order, offsets, 0, partitionCount));
+
+            for (var block = 0; block < end - start; block++) {
+                writeScore(output, scores[block]);
+                if (scores[block] != 0) {
+                    fraudulent++;
+                }
+            }
+        }
+        return fraudulent;
+    }
+
+    private static void writeScore(OutputStream output, int score) throws IOException {
+        var value = (score << 1) ^ (score >> 31);
+        while ((value & ~0x7F) != 0) {
+            output.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.write(value);
+    }
+
+    private static int readScore(InputStream input) throws IOException {
+        var value = 0;
+        for (var shift = 0;; shift += 7) {
+            var b = input.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (value >>> 1) ^ -(value & 1);
+            }
+        }
+    }
+
+    private static class Partition {
+        private final AccountAggregates accountAggregates;
+        private final WindowedAccountAggregates windowedAggregates;
+
+        Partition(ScoringWindow scoringWindow) {
+            this.accountAggregates = scoringWindow.isAllTime() ? new AccountAggregates() : null;
+            this.windowedAggregates = scoringWindow.isAllTime() ? null : new WindowedAccountAggregates(scoringWindow);
+        }
+
+        int getAverage(int accountId) {
+            return accountAggregates != null ? accountAggregates.getAverage(accountId)
+                : windowedAggregates.getAverage(accountId);
+        }
+
+        void add(int accountId, int amount) {
+            if (accountAggregates != null) {
+                accountAggregates.add(accountId, amount);
+            } else {
+                windowedAggregates.add(accountId, amount, 0);
+            }
+        }
+    }
+
+    private static class ScorePartitions extends RecursiveAction {
+        private final TransactionHistory history;
+        private final Partition[] partitions;
+        private final int start;
+        private final int[] scores;
+        private final int[] order;
+        private final int[] offsets;
+        private final int from;
+        private final int to;
+
+        ScorePartitions(TransactionHistory history, Partition[] partitions, int start, int[] scores, int[] order,
+            int[] offsets, int from, int to) {
+            this.history = history;
+            this.partitions = partitions;
+            this.start = start;
+            this.scores = scores;
+            this.order = order;
+            this.offsets = offsets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                var middle = (from + to) >>> 1;
+                invokeAll(new ScorePartitions(history, partitions, start, scores, order, offsets, from, middle),
+                    new ScorePartitions(history, partitions, start, scores, order, offsets, middle, to));
+                return;
+            }
+
+            var partition = partitions[from];
+            for (var k = offsets[from]; k < offsets[from + 1]; k++) {
+                var i = order[k];
+                var accountId = history.getAccountId(i);
+                var amount = history.getAmount(i);
+                var fraudScore = TransactionEngine.excessiveDebitScore(partition.getAverage(accountId), amount,
+                    history.isDebit(i));
+                if (fraudScore != 0) {
+                    scores[i - start] = fraudScore;
+                }
+                partition.add(accountId, amount);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+
+public class ListTransactionHistory implements TransactionHistory {
+    private static final int TRANSACTION_OBJECT_BYTES = 48;
+    private static final int REFERENCE_BYTES = 8;
+
+    private final ArrayList<Transaction> transactions;
+
+    public ListTransactionHistory() {
+        this(new ArrayList<>());
+    }
+
+    public ListTransactionHistory(ArrayList<Transaction> transactions) {
+        this.transactions = transactions;
+    }
+
+    @Override
+    public void add(long transactionId, int accountId, int amount, boolean isDebit) {
+        transactions.add(Transaction.builder()
+            .transactionId(transactionId)
+            .accountId(accountId)
+            .amount(amount)
+            .isDebit(isDebit)
+            .build());
+    }
+
+    @Override
+    public void add(Transaction txn) {
+        transactions.add(txn);
+    }
+
+    @Override
+    public int size() {
+        return transactions.size();
+    }
+
+    @Override
+    public long getTransactionId(int index) {
+        return transactions.get(index).transactionId;
+    }
+
+    @Override
+    public int getAccountId(int index) {
+        return transactions.get(index).accountId;
+    }
+
+    @Override
+    public int getAmount(int index) {
+        return transactions.get(index).amount;
+    }
+
+    @Override
+    public boolean isDebit(int index) {
+        return transactions.get(index).isDebit;
+    }
+
+    @Override
+    public Transaction get(int index) {
+        return transactions.get(index);
+    }
+
+    @Override
+    public void ensureCapacity(int capacity) {
+        transactions.ensureCapacity(capacity);
+    }
+
+    @Override
+    public void removeAll(BitSet indices) {
+        var retained = 0;
+        for (var i = indices.nextClearBit(0); i < transactions.size(); i = indices.nextClearBit(i + 1)) {
+            transactions.set(retained++, transactions.get(i));
+        }
+        transactions.subList(retained, transactions.size()).clear();
+    }
+
+    @Override
+    public long estimateMemoryBytes() {
+        return (long) transactions.size() * (TRANSACTION_OBJECT_BYTES + REFERENCE_BYTES);
+    }
+}
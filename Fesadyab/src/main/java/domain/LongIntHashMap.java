@@ -0,0 +1,215 @@
+package domain;
+
+class LongIntHashMap {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long EMPTY = 0L;
+
+    private final boolean storesValues;
+    private long[] keys;
+    private int[] values;
+    private boolean containsEmpty;
+    private int emptyValue;
+    private int size;
+
+    LongIntHashMap() {
+        this(true);
+    }
+
+    LongIntHashMap(boolean storesValues) {
+        this.storesValues = storesValues;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    boolean containsKey(long key) {
+        return key == EMPTY ? containsEmpty : find(key) >= 0;
+    }
+
+    int get(long key, int defaultValue) {
+        if (key == EMPTY) {
+            return containsEmpty ? emptyValue : defaultValue;
+        }
+        var slot = find(key);
+        return slot < 0 ? defaultValue : values[slot];
+    }
+
+    boolean add(long key) {
+        if (containsKey(key)) {
+            return false;
+        }
+        insert(key, 0);
+        return true;
+    }
+
+    void put(long key, int value) {
+        if (key == EMPTY) {
+            if (!containsEmpty) {
+                containsEmpty = true;
+                size++;
+            }
+            emptyValue = value;
+            return;
+        }
+
+        var slot = find(key);
+        if (slot >= 0) {
+            values[slot] = value;
+        } else {
+            insert(key, value);
+        }
+    }
+
+    int addTo(long key, int delta) {
+        if (key == EMPTY) {
+            var value = (containsEmpty ? emptyValue : 0) + delta;
+            if (value == 0) {
+                remove(EMPTY);
+            } else {
+                put(EMPTY, value);
+            }
+            return value;
+        }
+
+        var slot = find(key);
+        if (slot < 0) {
+            if (delta != 0) {
+                insert(key, delta);
+            }
+            return delta;
+        }
+        var value = values[slot] += delta;
+        if (value == 0) {
+            delete(slot);
+        }
+        return value;
+    }
+
+    boolean remove(long key) {
+        if (key == EMPTY) {
+            var removed = containsEmpty;
+            if (removed) {
+                containsEmpty = false;
+                emptyValue = 0;
+                size--;
+            }
+            return removed;
+        }
+
+        var slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+        delete(slot);
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        allocate(INITIAL_CAPACITY);
+        containsEmpty = false;
+        emptyValue = 0;
+        size = 0;
+    }
+
+    void ensureCapacity(int expectedSize) {
+        var capacity = keys.length;
+        while (expectedSize * 2 > capacity) {
+            capacity *= 2;
+        }
+        if (capacity != keys.length) {
+            resize(capacity);
+        }
+    }
+
+    long[] toKeyArray() {
+        var result = new long[size];
+        var count = 0;
+        if (containsEmpty) {
+            result[count++] = EMPTY;
+        }
+        for (long key : keys) {
+            if (key != EMPTY) {
+                result[count++] = key;
+            }
+        }
+        return result;
+    }
+
+    long estimateMemoryBytes() {
+        return (long) keys.length * (storesValues ? Long.BYTES + Integer.BYTES : Long.BYTES);
+    }
+
+    private static int hash(long key) {
+        var h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int find(long key) {
+        var mask = keys.length - 1;
+        for (var slot = hash(key) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(long key, int value) {
+        if (key == EMPTY) {
+            put(EMPTY, value);
+            return;
+        }
+
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        place(key, value);
+        size++;
+    }
+
+    private void place(long key, int value) {
+        var mask = keys.length - 1;
+        var slot = hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        if (storesValues) {
+            values[slot] = value;
+        }
+    }
+
+    private void delete(int hole) {
+        var mask = keys.length - 1;
+        for (var next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            var ideal = hash(keys[next]) & mask;
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                if (storesValues) {
+                    values[hole] = values[next];
+                }
+                hole = next;
+            }
+        }
+        keys[hole] = EMPTY;
+        size--;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = storesValues ? new int[capacity] : null;
+    }
+
+    private void resize(int capacity) {
+        var oldKeys = keys;
+        var oldValues = values;
+        allocate(capacity);
+        for (var i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                place(oldKeys[i], storesValues ? oldValues[i] : 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package domain;
+
+class MonotonicQueue {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final boolean minimum;
+    private int[] values = new int[INITIAL_CAPACITY];
+    private int head;
+    private int size;
+
+    private MonotonicQueue(boolean minimum) {
+        this.minimum = minimum;
+    }
+
+    static MonotonicQueue minimum() {
+        return new MonotonicQueue(true);
+    }
+
+    static MonotonicQueue maximum() {
+        return new MonotonicQueue(false);
+    }
+
+    void add(int value) {
+        while (size > 0 && dominates(value, values[(head + size - 1) & (values.length - 1)])) {
+            size--;
+        }
+        if (size == values.length) {
+            grow();
+        }
+        values[(head + size) & (values.length - 1)] = value;
+        size++;
+    }
+
+    void evict(int value) {
+        if (size > 0 && values[head] == value) {
+            head = (head + 1) & (values.length - 1);
+            size--;
+        }
+    }
+
+    int peek() {
+        return values[head];
+    }
+
+    long estimateMemoryBytes() {
+        return (long) values.length * Integer.BYTES;
+    }
+
+    private boolean dominates(int value, int other) {
+        return minimum ? value < other : value > other;
+    }
+
+    private void grow() {
+        var grown = new int[values.length * 2];
+        for (var i = 0; i < size; i++) {
+            grown[i] = values[(head + i) & (values.length - 1)];
+        }
+        values = grown;
+        head = 0;
+    }
+}
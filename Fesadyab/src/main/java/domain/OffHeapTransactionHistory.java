@@ -0,0 +1,94 @@
+package domain;
+
+import static domain.TransactionLayout.ACCOUNT_ID_OFFSET;
+import static domain.TransactionLayout.AMOUNT_OFFSET;
+import static domain.TransactionLayout.BYTE_ORDER;
+import static domain.TransactionLayout.DEBIT_FLAG;
+import static domain.TransactionLayout.FLAGS_OFFSET;
+import static domain.TransactionLayout.RECORD_LENGTH;
+import static domain.TransactionLayout.TRANSACTION_ID_OFFSET;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Objects;
+
+public class OffHeapTransactionHistory implements TransactionHistory {
+    private static final int CHUNK_SHIFT = 16;
+    private static final int RECORDS_PER_CHUNK = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = RECORDS_PER_CHUNK - 1;
+
+    private final ArrayList<ByteBuffer> chunks = new ArrayList<>();
+    private int size;
+
+    @Override
+    public void add(long transactionId, int accountId, int amount, boolean isDebit) {
+        if ((size & CHUNK_MASK) == 0 && (size >>> CHUNK_SHIFT) == chunks.size()) {
+            chunks.add(ByteBuffer.allocateDirect(RECORDS_PER_CHUNK * RECORD_LENGTH).order(BYTE_ORDER));
+        }
+
+        var chunk = chunks.get(size >>> CHUNK_SHIFT);
+        var offset = (size & CHUNK_MASK) * RECORD_LENGTH;
+        chunk.putLong(offset + TRANSACTION_ID_OFFSET, transactionId);
+        chunk.putInt(offset + ACCOUNT_ID_OFFSET, accountId);
+        chunk.putInt(offset + AMOUNT_OFFSET, amount);
+        chunk.put(offset + FLAGS_OFFSET, isDebit ? DEBIT_FLAG : 0);
+        size++;
+    }
+
+    @Override
+    public void removeAll(BitSet indices) {
+        var retained = 0;
+        for (var i = indices.nextClearBit(0); i < size; i = indices.nextClearBit(i + 1)) {
+            if (retained != i) {
+                var source = chunks.get(i >>> CHUNK_SHIFT);
+                var target = chunks.get(retained >>> CHUNK_SHIFT);
+                target.put(offsetOf(retained), source, offsetOf(i), RECORD_LENGTH);
+            }
+            retained++;
+        }
+        size = retained;
+
+        var chunksInUse = (size + CHUNK_MASK) >>> CHUNK_SHIFT;
+        chunks.subList(chunksInUse, chunks.size()).clear();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long getTransactionId(int index) {
+        return chunkOf(index).getLong(offsetOf(index) + TRANSACTION_ID_OFFSET);
+    }
+
+    @Override
+    public int getAccountId(int index) {
+        return chunkOf(index).getInt(offsetOf(index) + ACCOUNT_ID_OFFSET);
+    }
+
+    @Override
+    public int getAmount(int index) {
+        return chunkOf(index).getInt(offsetOf(index) + AMOUNT_OFFSET);
+    }
+
+    @Override
+    public boolean isDebit(int index) {
+        return (chunkOf(index).get(offsetOf(index) + FLAGS_OFFSET) & DEBIT_FLAG) != 0;
+    }
+
+    @Override
+    public long estimateMemoryBytes() {
+        return (long) chunks.size() * RECORDS_PER_CHUNK * RECORD_LENGTH;
+    }
+
+    private ByteBuffer chunkOf(int index) {
+        Objects.checkIndex(index, size);
+        return chunks.get(index >>> CHUNK_SHIFT);
+    }
+
+    private static int offsetOf(int index) {
+        return (index & CHUNK_MASK) * RECORD_LENGTH;
+    }
+}
@@ -0,0 +1,70 @@
+package domain;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+class PatternDetector {
+    private final int threshold;
+    private boolean started;
+    private long previousId;
+    private int previousAmount;
+    private int diff;
+    private boolean broken;
+
+    PatternDetector(int threshold) {
+        this.threshold = threshold;
+    }
+
+    void advance(long transactionId, int amount) {
+        if (!started) {
+            started = true;
+            previousId = transactionId;
+            previousAmount = amount;
+            return;
+        }
+
+        if (broken || transactionId == previousId || amount <= threshold) {
+            return;
+        }
+
+        if (diff == 0) {
+            diff = amount - previousAmount;
+            previousId = transactionId;
+            previousAmount = amount;
+        } else if (diff != amount - previousAmount) {
+            broken = true;
+        }
+    }
+
+    int getPattern() {
+        return broken ? 0 : diff;
+    }
+
+    boolean isBroken() {
+        return broken;
+    }
+
+    int getThreshold() {
+        return threshold;
+    }
+
+    void writeTo(DataOutput output) throws IOException {
+        output.writeInt(threshold);
+        output.writeBoolean(started);
+        output.writeLong(previousId);
+        output.writeInt(previousAmount);
+        output.writeInt(diff);
+        output.writeBoolean(broken);
+    }
+
+    static PatternDetector readFrom(DataInput input) throws IOException {
+        var patternDetector = new PatternDetector(input.readInt());
+        patternDetector.started = input.readBoolean();
+        patternDetector.previousId = input.readLong();
+        patternDetector.previousAmount = input.readInt();
+        patternDetector.diff = input.readInt();
+        patternDetector.broken = input.readBoolean();
+        return patternDetector;
+    }
+}
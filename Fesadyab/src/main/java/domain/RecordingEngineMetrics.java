@@ -0,0 +1,134 @@
+package domain;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RecordingEngineMetrics implements EngineMetrics {
+    private final LatencyHistogram deduplicationLatency = new LatencyHistogram();
+    private final LatencyHistogram aggregateLookupLatency = new LatencyHistogram();
+    private final LatencyHistogram patternCheckLatency = new LatencyHistogram();
+    private volatile List<FraudRule> rules = List.of();
+    private volatile LatencyHistogram[] ruleLatencies = new LatencyHistogram[0];
+    private volatile LongAdder[] ruleHits = new LongAdder[0];
+
+    private final LongAdder transactionsIngested = new LongAdder();
+    private final LongAdder duplicatesRejected = new LongAdder();
+    private final LongAdder excessiveDebits = new LongAdder();
+    private final LongAdder patternHits = new LongAdder();
+    private final LongAdder unconfirmedFilterHits = new LongAdder();
+    private volatile int historySize;
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public synchronized void bindRules(List<FraudRule> rules) {
+        if (this.rules.equals(rules)) {
+            return;
+        }
+        if (!this.rules.isEmpty()) {
+            throw new IllegalStateException("metrics are already bound to a different fraud rule pipeline");
+        }
+
+        var latencies = new LatencyHistogram[rules.size()];
+        var hits = new LongAdder[rules.size()];
+        for (var i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+            hits[i] = new LongAdder();
+        }
+        this.ruleLatencies = latencies;
+        this.ruleHits = hits;
+        this.rules = List.copyOf(rules);
+    }
+
+    @Override
+    public void recordDeduplication(long nanos, boolean duplicate) {
+        deduplicationLatency.record(nanos);
+        if (duplicate) {
+            duplicatesRejected.increment();
+        }
+    }
+
+    @Override
+    public void recordAggregateLookup(long nanos, boolean excessiveDebit) {
+        aggregateLookupLatency.record(nanos);
+        if (excessiveDebit) {
+            excessiveDebits.increment();
+        }
+    }
+
+    @Override
+    public void recordPatternCheck(long nanos, boolean patternHit) {
+        patternCheckLatency.record(nanos);
+        if (patternHit) {
+            patternHits.increment();
+        }
+    }
+
+    @Override
+    public void recordRuleCheck(int ruleIndex, long nanos, boolean hit) {
+        ruleLatencies[ruleIndex].record(nanos);
+        if (hit) {
+            ruleHits[ruleIndex].increment();
+        }
+    }
+
+    @Override
+    public void recordIngested(int historySize) {
+        transactionsIngested.increment();
+        this.historySize = historySize;
+    }
+
+    @Override
+    public void recordUnconfirmedFilterHit() {
+        unconfirmedFilterHits.increment();
+    }
+
+    public long getTransactionsIngested() {
+        return transactionsIngested.sum();
+    }
+
+    public long getDuplicatesRejected() {
+        return duplicatesRejected.sum();
+    }
+
+    public long getExcessiveDebits() {
+        return excessiveDebits.sum();
+    }
+
+    public long getPatternHits() {
+        return patternHits.sum();
+    }
+
+    public long getUnconfirmedFilterHits() {
+        return unconfirmedFilterHits.sum();
+    }
+
+    public long getRuleHits(FraudRule rule) {
+        var index = rules.indexOf(rule);
+        return index < 0 ? 0 : ruleHits[index].sum();
+    }
+
+    public int getHistorySize() {
+        return historySize;
+    }
+
+    public LatencyHistogram getDeduplicationLatency() {
+        return deduplicationLatency;
+    }
+
+    public LatencyHistogram getAggregateLookupLatency() {
+        return aggregateLookupLatency;
+    }
+
+    public LatencyHistogram getPatternCheckLatency() {
+        return patternCheckLatency;
+    }
+
+    public LatencyHistogram getRuleLatency(FraudRule rule) {
+        var index = rules.indexOf(rule);
+        return index < 0 ? null : ruleLatencies[index];
+    }
+}
@@ -0,0 +1,79 @@
+package domain;
+
+import java.time.Duration;
+
+public final class RetentionPolicy {
+    private static final RetentionPolicy UNBOUNDED = new RetentionPolicy(0, 0, 0);
+
+    private final int maxRecords;
+    private final long maxAgeMillis;
+    private final int maxRecordsPerAccount;
+
+    private RetentionPolicy(int maxRecords, long maxAgeMillis, int maxRecordsPerAccount) {
+        this.maxRecords = maxRecords;
+        this.maxAgeMillis = maxAgeMillis;
+        this.maxRecordsPerAccount = maxRecordsPerAccount;
+    }
+
+    public static RetentionPolicy unbounded() {
+        return UNBOUNDED;
+    }
+
+    public static RetentionPolicy maxRecords(int maxRecords) {
+        if (maxRecords <= 0) {
+            throw new IllegalArgumentException("retention must keep at least one transaction");
+        }
+        return new RetentionPolicy(maxRecords, 0, 0);
+    }
+
+    public static RetentionPolicy maxAge(Duration maxAge) {
+        if (maxAge.isNegative() || maxAge.isZero()) {
+            throw new IllegalArgumentException("retention age must be positive");
+        }
+        return new RetentionPolicy(0, maxAge.toMillis(), 0);
+    }
+
+    public static RetentionPolicy maxRecordsPerAccount(int maxRecordsPerAccount) {
+        if (maxRecordsPerAccount <= 0) {
+            throw new IllegalArgumentException("retention must keep at least one transaction per account");
+        }
+        return new RetentionPolicy(0, 0, maxRecordsPerAccount);
+    }
+
+    public RetentionPolicy and(RetentionPolicy other) {
+        return new RetentionPolicy(tighter(maxRecords, other.maxRecords),
+            tighter(maxAgeMillis, other.maxAgeMillis),
+            tighter(maxRecordsPerAccount, other.maxRecordsPerAccount));
+    }
+
+    public boolean isUnbounded() {
+        return maxRecords == 0 && maxAgeMillis == 0 && maxRecordsPerAccount == 0;
+    }
+
+    public boolean isTimeBased() {
+        return maxAgeMillis > 0;
+    }
+
+    public int getMaxRecords() {
+        return maxRecords;
+    }
+
+    public long getMaxAgeMillis() {
+        return maxAgeMillis;
+    }
+
+    public int getMaxRecordsPerAccount() {
+        return maxRecordsPerAccount;
+    }
+
+    private static int tighter(int limit, int otherLimit) {
+        return (int) tighter((long) limit, otherLimit);
+    }
+
+    private static long tighter(long limit, long otherLimit) {
+        if (limit == 0 || otherLimit == 0) {
+            return Math.max(limit, otherLimit);
+        }
+        return Math.min(limit, otherLimit);
+    }
+}
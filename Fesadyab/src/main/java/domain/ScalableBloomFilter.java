@@ -0,0 +1,203 @@
+package domain;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+public class ScalableBloomFilter implements AutoCloseable {
+    private static final int MAGIC = 0x46534246;
+    private static final int VERSION = 1;
+    private static final int HEADER_LENGTH = 64;
+    private static final int BIT_COUNT_OFFSET = 8;
+    private static final int HASH_COUNT_OFFSET = 16;
+    private static final int CAPACITY_OFFSET = 24;
+    private static final int SIZE_OFFSET = 32;
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+    private static final long MAX_BIT_COUNT = (Integer.MAX_VALUE - HEADER_LENGTH) / Long.BYTES * (long) Long.SIZE;
+
+    private final Path directory;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final ArrayList<Stage> stages = new ArrayList<>();
+
+    private ScalableBloomFilter(Path directory, long expectedInsertions, double falsePositiveRate) throws IOException {
+        this.directory = directory;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+
+        Files.createDirectories(directory);
+        while (Files.exists(stagePath(stages.size()))) {
+            stages.add(openStage(stages.size()));
+        }
+        if (stages.isEmpty()) {
+            stages.add(openStage(0));
+        }
+    }
+
+    public static ScalableBloomFilter open(Path directory, long expectedInsertions, double falsePositiveRate)
+        throws IOException {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expected insertions must be positive");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("false positive rate must be between 0 and 1");
+        }
+        return new ScalableBloomFilter(directory, expectedInsertions, falsePositiveRate);
+    }
+
+    public boolean mightContain(long transactionId) {
+        var h1 = mix(transactionId);
+        var h2 = mix(h1) | 1;
+        for (var i = stages.size() - 1; i >= 0; i--) {
+            if (stages.get(i).mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean put(long transactionId) {
+        if (mightContain(transactionId)) {
+            return false;
+        }
+
+        var stage = stages.get(stages.size() - 1);
+        if (stage.size() >= stage.capacity) {
+            try {
+                stage = openStage(stages.size());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            stages.add(stage);
+        }
+        var h1 = mix(transactionId);
+        stage.put(h1, mix(h1) | 1);
+        return true;
+    }
+
+    public long size() {
+        var size = 0L;
+        for (Stage stage : stages) {
+            size += stage.size();
+        }
+        return size;
+    }
+
+    public int getStageCount() {
+        return stages.size();
+    }
+
+    public void force() {
+        for (Stage stage : stages) {
+            stage.buffer.force();
+        }
+    }
+
+    @Override
+    public void close() {
+        force();
+        stages.clear();
+    }
+
+    static long bitCountOf(long expectedInsertions, double falsePositiveRate) {
+        var bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        return Math.max(Long.SIZE, (bits + Long.SIZE - 1) & -Long.SIZE);
+    }
+
+    static int hashCountOf(long expectedInsertions, long bitCount) {
+        return Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    private Path stagePath(int index) {
+        return directory.resolve("stage-" + index + ".bloom");
+    }
+
+    private Stage openStage(int index) throws IOException {
+        var capacity = expectedInsertions;
+        var stageFalsePositiveRate = falsePositiveRate * (1 - TIGHTENING_RATIO);
+        for (var i = 0; i < index; i++) {
+            capacity *= GROWTH_FACTOR;
+            stageFalsePositiveRate *= TIGHTENING_RATIO;
+        }
+        var bitCount = bitCountOf(capacity, stageFalsePositiveRate);
+        if (bitCount > MAX_BIT_COUNT) {
+            throw new IllegalStateException("bloom filter stage " + index + " would exceed " + MAX_BIT_COUNT + " bits");
+        }
+        var hashCount = hashCountOf(capacity, bitCount);
+
+        var path = stagePath(index);
+        var created = !Files.exists(path);
+        try (var channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_LENGTH + bitCount / Byte.SIZE);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (created) {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putLong(BIT_COUNT_OFFSET, bitCount);
+                buffer.putInt(HASH_COUNT_OFFSET, hashCount);
+                buffer.putLong(CAPACITY_OFFSET, capacity);
+            } else if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("unsupported bloom filter stage: " + path);
+            } else if (buffer.getLong(BIT_COUNT_OFFSET) != bitCount || buffer.getInt(HASH_COUNT_OFFSET) != hashCount) {
+                throw new IllegalStateException("bloom filter stage " + path + " was sized for different settings");
+            }
+            return new Stage(buffer, bitCount, hashCount, capacity);
+        }
+    }
+
+    private static long mix(long value) {
+        var h = value * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        h *= 0xD6E8FEB86659FD93L;
+        return h ^ (h >>> 32);
+    }
+
+    private static class Stage {
+        private final MappedByteBuffer buffer;
+        private final long bitCount;
+        private final int hashCount;
+        private final long capacity;
+
+        Stage(MappedByteBuffer buffer, long bitCount, int hashCount, long capacity) {
+            this.buffer = buffer;
+            this.bitCount = bitCount;
+            this.hashCount = hashCount;
+            this.capacity = capacity;
+        }
+
+        boolean mightContain(long h1, long h2) {
+            for (var i = 0; i < hashCount; i++) {
+                var bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+                if ((buffer.getLong(wordOffset(bit)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void put(long h1, long h2) {
+            for (var i = 0; i < hashCount; i++) {
+                var bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+                var offset = wordOffset(bit);
+                buffer.putLong(offset, buffer.getLong(offset) | (1L << bit));
+            }
+            buffer.putLong(SIZE_OFFSET, size() + 1);
+        }
+
+        long size() {
+            return buffer.getLong(SIZE_OFFSET);
+        }
+
+        private static int wordOffset(long bit) {
+            return HEADER_LENGTH + (int) (bit >>> 6) * Long.BYTES;
+        }
+    }
+}
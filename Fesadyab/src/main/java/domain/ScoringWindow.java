@@ -0,0 +1,52 @@
+package domain;
+
+import java.time.Duration;
+
+public final class ScoringWindow {
+    private static final ScoringWindow ALL_TIME = new ScoringWindow(0, 0);
+
+    private final int maxTransactions;
+    private final long durationMillis;
+
+    private ScoringWindow(int maxTransactions, long durationMillis) {
+        this.maxTransactions = maxTransactions;
+        this.durationMillis = durationMillis;
+    }
+
+    public static ScoringWindow allTime() {
+        return ALL_TIME;
+    }
+
+    public static ScoringWindow lastTransactions(int maxTransactions) {
+        if (maxTransactions <= 0) {
+            throw new IllegalArgumentException("window must hold at least one transaction");
+        }
+        return new ScoringWindow(maxTransactions, 0);
+    }
+
+    public static ScoringWindow lastDuration(Duration duration, int maxTransactions) {
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("window duration must be positive");
+        }
+        if (maxTransactions <= 0) {
+            throw new IllegalArgumentException("window must hold at least one transaction");
+        }
+        return new ScoringWindow(maxTransactions, duration.toMillis());
+    }
+
+    public boolean isAllTime() {
+        return maxTransactions == 0;
+    }
+
+    public boolean isTimeBased() {
+        return durationMillis > 0;
+    }
+
+    public int getMaxTransactions() {
+        return maxTransactions;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+}
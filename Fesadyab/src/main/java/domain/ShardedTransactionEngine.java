@@ -0,0 +1,182 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+
+public class ShardedTransactionEngine implements AutoCloseable {
+    private static final Runnable RETIRE = () -> { };
+
+    private final Function<TransactionHistory, TransactionEngine> engineFactory;
+    private volatile Shard[] shards;
+    private volatile boolean closed;
+
+    public ShardedTransactionEngine(int shardCount) {
+        this(shardCount, TransactionEngine::new);
+    }
+
+    public ShardedTransactionEngine(int shardCount, Function<TransactionHistory, TransactionEngine> engineFactory) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shard count must be positive");
+        }
+
+        this.engineFactory = engineFactory;
+        var initialShards = new Shard[shardCount];
+        for (var i = 0; i < shardCount; i++) {
+            initialShards[i] = new Shard(i);
+            initialShards[i].start(engineFactory.apply(new ColumnarTransactionHistory()));
+        }
+        this.shards = initialShards;
+    }
+
+    public CompletableFuture<Integer> addTransactionAndDetectFraud(Transaction txn) {
+        return submit(txn.accountId, engine -> engine.addTransactionAndDetectFraud(txn));
+    }
+
+    public CompletableFuture<Integer> getAverageTransactionAmountByAccount(int accountId) {
+        return submit(accountId, engine -> engine.getAverageTransactionAmountByAccount(accountId));
+    }
+
+    public int getTransactionCount() {
+        while (true) {
+            var currentShards = shards;
+            var counts = new ArrayList<CompletableFuture<Integer>>();
+            for (Shard shard : currentShards) {
+                var count = shard.submit(TransactionEngine::getHistorySize);
+                if (count == null) {
+                    break;
+                }
+                counts.add(count);
+            }
+
+            if (counts.size() == currentShards.length) {
+                return counts.stream().mapToInt(CompletableFuture::join).sum();
+            }
+            requireOpen();
+        }
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    public synchronized void rebalance(int shardCount) {
+        requireOpen();
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shard count must be positive");
+        }
+
+        var oldShards = shards;
+        var newShards = new Shard[shardCount];
+        for (var i = 0; i < shardCount; i++) {
+            newShards[i] = new Shard(i);
+        }
+        shards = newShards;
+
+        var histories = new ColumnarTransactionHistory[shardCount];
+        for (var i = 0; i < shardCount; i++) {
+            histories[i] = new ColumnarTransactionHistory();
+        }
+        for (Shard oldShard : oldShards) {
+            oldShard.retire().join().forEachTransaction((transactionId, accountId, amount, isDebit) ->
+                histories[shardOf(accountId, shardCount)].add(transactionId, accountId, amount, isDebit));
+        }
+
+        for (var i = 0; i < shardCount; i++) {
+            newShards[i].start(engineFactory.apply(histories[i]));
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        for (Shard shard : shards) {
+            shard.retire().join();
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(int accountId, Function<TransactionEngine, T> operation) {
+        while (true) {
+            var currentShards = shards;
+            var result = currentShards[shardOf(accountId, currentShards.length)].submit(operation);
+            if (result != null) {
+                return result;
+            }
+            requireOpen();
+        }
+    }
+
+    private void requireOpen() {
+        if (closed) {
+            throw new IllegalStateException("sharded engine is closed");
+        }
+    }
+
+    static int shardOf(int accountId, int shardCount) {
+        var h = accountId * 0x9E3779B9;
+        return Math.floorMod(h ^ (h >>> 16), shardCount);
+    }
+
+    private static class Shard {
+        private final LinkedBlockingQueue<Runnable> commands = new LinkedBlockingQueue<>();
+        private final CompletableFuture<TransactionEngine> retired = new CompletableFuture<>();
+        private final Thread thread;
+        private TransactionEngine engine;
+        private boolean retiring;
+
+        Shard(int index) {
+            thread = new Thread(this::run, "fraud-shard-" + index);
+            thread.setDaemon(true);
+        }
+
+        void start(TransactionEngine engine) {
+            this.engine = engine;
+            thread.start();
+        }
+
+        synchronized <T> CompletableFuture<T> submit(Function<TransactionEngine, T> operation) {
+            if (retiring) {
+                return null;
+            }
+
+            var result = new CompletableFuture<T>();
+            commands.add(() -> {
+                try {
+                    result.complete(operation.apply(engine));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+            return result;
+        }
+
+        synchronized CompletableFuture<TransactionEngine> retire() {
+            if (!retiring) {
+                retiring = true;
+                commands.add(RETIRE);
+            }
+            return retired;
+        }
+
+        private void run() {
+            try {
+                while (true) {
+                    var command = commands.take();
+                    if (command == RETIRE) {
+                        retired.complete(engine);
+                        return;
+                    }
+                    command.run();
+                }
+            } catch (InterruptedException e) {
+                retired.completeExceptionally(e);
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
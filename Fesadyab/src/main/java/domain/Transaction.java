@@ -12,6 +12,7 @@ public class Transaction {
     int accountId;
     int amount;
     boolean isDebit;
+    long timestamp;
 
     @Override
     public boolean equals(Object obj) {
@@ -20,4 +21,9 @@ public class Transaction {
         }
         return false;
     }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(transactionId);
+    }
 }
@@ -0,0 +1,7 @@
+package domain;
+
+@FunctionalInterface
+public interface TransactionConsumer {
+
+    void accept(long transactionId, int accountId, int amount, boolean isDebit);
+}
@@ -1,54 +1,181 @@
 package domain;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Builder;
 
 public class TransactionEngine {
-    ArrayList<Transaction> transactionHistory;
+    TransactionHistory transactionHistory;
+    AccountAggregates accountAggregates;
+    TransactionIdSet transactionIds;
+    PatternDetector patternDetector;
+    TransactionJournal journal;
+    ScalableBloomFilter duplicateFilter;
+    ScoringWindow scoringWindow;
+    WindowedAccountAggregates windowedAggregates;
+    TransactionRetention retention;
+    EngineMetrics metrics;
+    boolean metricsEnabled;
+    FraudRulePipeline fraudRules;
+    AccountAggregates batchDeltas;
+    int[] batchPatterns;
+    int batchPosition;
+    final FraudContext fraudContext = new FraudContext() {
+        @Override
+        public int getAverageTransactionAmount(int accountId, long timestamp) {
+            if (batchDeltas != null) {
+                var count = accountAggregates.getCount(accountId) + batchDeltas.getCount(accountId);
+                return count == 0 ? 0
+                    : (int) ((accountAggregates.getSum(accountId) + batchDeltas.getSum(accountId)) / count);
+            }
+            return getAverageTransactionAmountByAccount(accountId, timestamp);
+        }
+
+        @Override
+        public int getTransactionCount(int accountId) {
+            if (batchDeltas != null) {
+                return accountAggregates.getCount(accountId) + batchDeltas.getCount(accountId);
+            }
+            if (windowedAggregates != null) {
+                return windowedAggregates.getCount(accountId);
+            }
+            return accountAggregates.getCount(accountId);
+        }
+
+        @Override
+        public int getTransactionPattern() {
+            if (batchPatterns != null) {
+                return batchPatterns[batchPosition];
+            }
+            return getTransactionPatternAboveThreshold(THRESHOLD);
+        }
+    };
     int THRESHOLD = 1000;
 
     public TransactionEngine() {
-        transactionHistory = new ArrayList<>();
+        this(new ColumnarTransactionHistory(), 0);
     }
 
-    int getAverageTransactionAmountByAccount(int accountId) {
-        var totalAmount = 0;
-        var count = 0;
+    public TransactionEngine(int deduplicationWindow) {
+        this(new ColumnarTransactionHistory(), deduplicationWindow);
+    }
 
-        for (Transaction txn : transactionHistory) {
-            if (txn.accountId == accountId) {
-                totalAmount += txn.amount;
-                count++;
+    public TransactionEngine(TransactionHistory transactionHistory) {
+        this(transactionHistory, 0);
+    }
+
+    TransactionEngine(ArrayList<Transaction> transactionHistory) {
+        this(new ListTransactionHistory(transactionHistory), 0);
+    }
+
+    public TransactionEngine(TransactionHistory transactionHistory, int deduplicationWindow) {
+        this(transactionHistory, deduplicationWindow, null, null, null, null, null, null);
+    }
+
+    @Builder
+    private TransactionEngine(TransactionHistory transactionHistory, int deduplicationWindow,
+        TransactionJournal journal, ScoringWindow scoringWindow, EngineMetrics metrics,
+        ScalableBloomFilter duplicateFilter, FraudRulePipeline fraudRules, RetentionPolicy retentionPolicy) {
+        this.transactionHistory = transactionHistory == null ? new ColumnarTransactionHistory() : transactionHistory;
+        this.journal = journal;
+        this.duplicateFilter = duplicateFilter;
+        this.fraudRules = fraudRules == null ? FraudRuleRegistry.withBuiltInRules().compile() : fraudRules;
+        this.metrics = metrics == null ? EngineMetrics.DISABLED : metrics;
+        this.metricsEnabled = this.metrics.isEnabled();
+        if (metricsEnabled) {
+            this.metrics.bindRules(this.fraudRules.getRules());
+        }
+        this.scoringWindow = scoringWindow == null ? ScoringWindow.allTime() : scoringWindow;
+        this.windowedAggregates = this.scoringWindow.isAllTime() ? null
+            : new WindowedAccountAggregates(this.scoringWindow);
+        var bounded = retentionPolicy != null && !retentionPolicy.isUnbounded();
+        this.accountAggregates = new AccountAggregates(bounded);
+        this.transactionIds = new TransactionIdSet(deduplicationWindow);
+        this.patternDetector = new PatternDetector(THRESHOLD);
+        this.retention = bounded
+            ? new TransactionRetention(retentionPolicy, this.transactionHistory, THRESHOLD, this::onEvicted) : null;
+
+        for (var i = 0; i < this.transactionHistory.size(); i++) {
+            var accountId = this.transactionHistory.getAccountId(i);
+            var amount = this.transactionHistory.getAmount(i);
+            indexTransaction(this.transactionHistory.getTransactionId(i), accountId, amount,
+                this.transactionHistory.isDebit(i), 0);
+            if (retention != null) {
+                retention.onAppended(i, accountId, amount, 0);
+                retention.enforceLimits(accountId);
             }
         }
+        if (retention != null) {
+            retention.compactIfSparse();
+        }
+    }
 
-        if (count == 0) {
-            return 0;
+    int getAverageTransactionAmountByAccount(int accountId) {
+        if (windowedAggregates != null) {
+            return windowedAggregates.getAverage(accountId);
         }
+        return accountAggregates.getAverage(accountId);
+    }
+
+    int getAverageTransactionAmountByAccount(int accountId, long timestamp) {
+        if (windowedAggregates != null) {
+            return windowedAggregates.getAverage(accountId, timestamp);
+        }
+        return accountAggregates.getAverage(accountId);
+    }
 
-        return totalAmount / count;
+    public FixedPointAmount getExactAverageTransactionAmountByAccount(int accountId) {
+        if (windowedAggregates != null) {
+            return FixedPointAmount.average(windowedAggregates.getSum(accountId),
+                windowedAggregates.getCount(accountId));
+        }
+        return FixedPointAmount.average(accountAggregates.getSum(accountId), accountAggregates.getCount(accountId));
     }
 
     int getTransactionPatternAboveThreshold(int threshold) {
-        if (transactionHistory.isEmpty()) {
+        if (retention != null) {
+            return threshold == retention.getThreshold() && !retention.isPatternAffectedByRepeatedIds()
+                ? retention.getTransactionPattern() : scanTransactionPatternAboveThreshold(threshold);
+        }
+        if (threshold == patternDetector.getThreshold()) {
+            return patternDetector.getPattern();
+        }
+        return scanTransactionPatternAboveThreshold(threshold);
+    }
+
+    int scanTransactionPatternAboveThreshold(int threshold) {
+        if (getHistorySize() == 0) {
             return 0;
         }
 
+        var first = retention == null ? 0 : retention.getFirstRetained();
         var diff = 0;
-        var previous = transactionHistory.getFirst();
+        var previousId = transactionHistory.getTransactionId(first);
+        var previousAmount = transactionHistory.getAmount(first);
 
-        for (Transaction txn : transactionHistory) {
-            if (txn.transactionId == previous.transactionId) {
+        for (var i = first; i < transactionHistory.size(); i++) {
+            if (retention != null && retention.isEvicted(i)) {
+                continue;
+            }
+            var transactionId = transactionHistory.getTransactionId(i);
+            if (transactionId == previousId) {
                 continue;
             }
 
-            if (txn.amount <= threshold) {
+            var amount = transactionHistory.getAmount(i);
+            if (amount <= threshold) {
                 continue;
             }
 
             if (diff == 0) {
-                diff = txn.amount - previous.amount;
-                previous = txn;
-            } else if (diff != txn.amount - previous.amount) {
+                diff = amount - previousAmount;
+                previousId = transactionId;
+                previousAmount = amount;
+            } else if (diff != amount - previousAmount) {
                 return 0;
             }
         }
@@ -57,26 +184,354 @@ public class TransactionEngine {
     }
 
     int detectFraudulentTransaction(Transaction txn) {
-        var averageAmount = getAverageTransactionAmountByAccount(txn.accountId);
+        return detectFraudulentTransaction(txn.accountId, txn.amount, txn.isDebit, txn.timestamp);
+    }
 
-        if (txn.isDebit && txn.amount > 2 * averageAmount) {
-            return txn.amount - 2 * averageAmount;  // Excessive debit, marked as suspicious
+    int detectFraudulentTransaction(int accountId, int amount, boolean isDebit, long timestamp) {
+        return excessiveDebitScore(getAverageTransactionAmountByAccount(accountId, timestamp), amount, isDebit);
+    }
+
+    static int excessiveDebitScore(int averageAmount, int amount, boolean isDebit) {
+        var excess = amount - 2L * averageAmount;
+        if (isDebit && excess > 0) {
+            return (int) Math.min(excess, Integer.MAX_VALUE);  // Excessive debit, marked as suspicious
         }
 
         return 0;
     }
 
     public int addTransactionAndDetectFraud(Transaction txn) {
-        if (transactionHistory.contains(txn)) {
+        return ingest(txn.transactionId, txn.accountId, txn.amount, txn.isDebit, txn.timestamp, txn);
+    }
+
+    public int addTransactionAndDetectFraud(long transactionId, int accountId, int amount, boolean isDebit) {
+        return ingest(transactionId, accountId, amount, isDebit, 0, null);
+    }
+
+    public int addTransactionAndDetectFraud(long transactionId, int accountId, int amount, boolean isDebit,
+        long timestamp) {
+        return ingest(transactionId, accountId, amount, isDebit, timestamp, null);
+    }
+
+    public int addTransactionAndDetectFraud(long transactionId, int accountId, FixedPointAmount amount,
+        boolean isDebit) {
+        return addTransactionAndDetectFraud(transactionId, accountId, amount.toMinorUnitsExact(), isDebit);
+    }
+
+    public int addTransactionAndDetectFraud(TransactionView view) {
+        return ingest(view.getTransactionId(), view.getAccountId(), view.getAmount(), view.isDebit(), 0, null);
+    }
+
+    public int[] addTransactionsAndDetectFraud(List<Transaction> transactions) {
+        var count = transactions.size();
+        var transactionIds = new long[count];
+        var accountIds = new int[count];
+        var amounts = new int[count];
+        var debits = new boolean[count];
+        var timestamps = new long[count];
+        for (var i = 0; i < count; i++) {
+            Transaction txn = transactions.get(i);
+            transactionIds[i] = txn.transactionId;
+            accountIds[i] = txn.accountId;
+            amounts[i] = txn.amount;
+            debits[i] = txn.isDebit;
+            timestamps[i] = txn.timestamp;
+        }
+        return ingestBatch(transactionIds, accountIds, amounts, debits, timestamps, transactions);
+    }
+
+    public int[] addTransactionsAndDetectFraud(long[] transactionIds, int[] accountIds, int[] amounts,
+        boolean[] debits) {
+        return addTransactionsAndDetectFraud(transactionIds, accountIds, amounts, debits,
+            new long[transactionIds.length]);
+    }
+
+    public int[] addTransactionsAndDetectFraud(long[] transactionIds, int[] accountIds, int[] amounts,
+        boolean[] debits, long[] timestamps) {
+        var count = transactionIds.length;
+        if (accountIds.length != count || amounts.length != count || debits.length != count
+            || timestamps.length != count) {
+            throw new IllegalArgumentException("transaction columns must have the same length");
+        }
+        return ingestBatch(transactionIds, accountIds, amounts, debits, timestamps, null);
+    }
+
+    private int[] ingestBatch(long[] transactionIds, int[] accountIds, int[] amounts, boolean[] debits,
+        long[] timestamps, List<Transaction> transactions) {
+        var count = transactionIds.length;
+        var fraudScores = new int[count];
+        reserve(count);
+
+        if (retention != null || windowedAggregates != null) {
+            for (var i = 0; i < count; i++) {
+                fraudScores[i] = ingest(transactionIds[i], accountIds[i], amounts[i], debits[i], timestamps[i],
+                    transactions == null ? null : transactions.get(i));
+            }
+            return fraudScores;
+        }
+
+        for (var i = 0; i < count; i++) {
+            requireTimestamp(timestamps[i]);
+        }
+
+        var accepted = new boolean[count];
+        var batchIds = duplicateFilter == null ? null : new LongIntHashMap(false);
+        for (var i = 0; i < count; i++) {
+            var startedAt = now();
+            var duplicate = isDuplicate(transactionIds[i]) || batchIds != null && !batchIds.add(transactionIds[i]);
+            if (metricsEnabled) {
+                metrics.recordDeduplication(now() - startedAt, duplicate);
+            }
+            if (!duplicate) {
+                accepted[i] = true;
+                this.transactionIds.add(transactionIds[i]);
+            }
+        }
+
+        var patterns = new int[count];
+        for (var i = 0; i < count && !patternDetector.isBroken(); i++) {
+            if (accepted[i]) {
+                patterns[i] = patternDetector.getPattern();
+                patternDetector.advance(transactionIds[i], amounts[i]);
+            }
+        }
+
+        var deltas = new AccountAggregates();
+        batchDeltas = deltas;
+        batchPatterns = patterns;
+        try {
+            for (var i = 0; i < count; i++) {
+                if (!accepted[i]) {
+                    continue;
+                }
+                batchPosition = i;
+                fraudScores[i] = fraudRules.evaluate(fraudContext, metrics, transactionIds[i], accountIds[i],
+                    amounts[i], debits[i], timestamps[i]);
+                deltas.add(accountIds[i], amounts[i]);
+                fraudRules.onTransactionAccepted(transactionIds[i], accountIds[i], amounts[i], debits[i],
+                    timestamps[i]);
+            }
+        } finally {
+            batchDeltas = null;
+            batchPatterns = null;
+        }
+
+        for (var i = 0; i < count; i++) {
+            if (!accepted[i]) {
+                continue;
+            }
+            if (transactions != null) {
+                transactionHistory.add(transactions.get(i));
+            } else {
+                transactionHistory.add(transactionIds[i], accountIds[i], amounts[i], debits[i]);
+            }
+            journalTransaction(transactionIds[i], accountIds[i], amounts[i], debits[i]);
+            if (duplicateFilter != null) {
+                duplicateFilter.put(transactionIds[i]);
+            }
+            if (metricsEnabled) {
+                metrics.recordIngested(getHistorySize());
+            }
+        }
+        accountAggregates.merge(deltas);
+
+        return fraudScores;
+    }
+
+    private int ingest(long transactionId, int accountId, int amount, boolean isDebit, long timestamp,
+        Transaction txn) {
+        requireTimestamp(timestamp);
+        if (retention != null) {
+            retention.expire(timestamp);
+        }
+
+        var startedAt = now();
+        if (isDuplicate(transactionId)) {
+            if (metricsEnabled) {
+                metrics.recordDeduplication(now() - startedAt, true);
+            }
             return 0;
         }
+        var deduplicatedAt = now();
+
+        var fraudScore = fraudRules.evaluate(fraudContext, metrics, transactionId, accountId, amount, isDebit,
+            timestamp);
 
-        var fraudScore = detectFraudulentTransaction(txn);
-        if (fraudScore == 0) {
-            fraudScore = getTransactionPatternAboveThreshold(THRESHOLD);
+        if (txn != null) {
+            transactionHistory.add(txn);
+        } else {
+            transactionHistory.add(transactionId, accountId, amount, isDebit);
+        }
+        journalTransaction(transactionId, accountId, amount, isDebit);
+        indexTransaction(transactionId, accountId, amount, isDebit, timestamp);
+        if (retention != null) {
+            retention.onAppended(transactionHistory.size() - 1, accountId, amount, timestamp);
+            retention.enforce(accountId);
         }
 
-        transactionHistory.add(txn);
+        if (metricsEnabled) {
+            metrics.recordDeduplication(deduplicatedAt - startedAt, false);
+            metrics.recordIngested(getHistorySize());
+        }
         return fraudScore;
     }
+
+    private long now() {
+        return metricsEnabled ? System.nanoTime() : 0L;
+    }
+
+    private void reserve(int count) {
+        transactionHistory.ensureCapacity(transactionHistory.size() + count);
+        transactionIds.ensureCapacity(transactionIds.size() + count);
+    }
+
+    public int getHistorySize() {
+        return retention == null ? transactionHistory.size() : retention.size();
+    }
+
+    public void forEachTransaction(TransactionConsumer consumer) {
+        for (var i = 0; i < transactionHistory.size(); i++) {
+            if (retention == null || !retention.isEvicted(i)) {
+                consumer.accept(transactionHistory.getTransactionId(i), transactionHistory.getAccountId(i),
+                    transactionHistory.getAmount(i), transactionHistory.isDebit(i));
+            }
+        }
+    }
+
+    public long estimateMemoryBytes() {
+        var bytes = transactionHistory.estimateMemoryBytes() + accountAggregates.estimateMemoryBytes()
+            + transactionIds.estimateMemoryBytes();
+        if (windowedAggregates != null) {
+            bytes += windowedAggregates.estimateMemoryBytes();
+        }
+        if (retention != null) {
+            bytes += retention.estimateMemoryBytes();
+        }
+        return bytes;
+    }
+
+    public void checkpoint(Path snapshotPath) throws IOException {
+        if (journal == null) {
+            throw new IllegalStateException("checkpoint requires a journal");
+        }
+        if (windowedAggregates != null) {
+            throw new IllegalStateException("checkpoint is only supported for all-time scoring");
+        }
+        if (retention != null) {
+            throw new IllegalStateException("checkpoint is only supported with unbounded retention");
+        }
+
+        journal.force();
+        EngineSnapshot.capture(journal.size(), accountAggregates, transactionIds, patternDetector,
+            fraudRules.getRules()).write(snapshotPath);
+    }
+
+    public void recover(Path snapshotPath) throws IOException {
+        if (journal == null) {
+            throw new IllegalStateException("recovery requires a journal");
+        }
+        if (!transactionHistory.isEmpty()) {
+            throw new IllegalStateException("recovery requires an empty engine");
+        }
+        if (windowedAggregates != null) {
+            throw new IllegalStateException("recovery is only supported for all-time scoring");
+        }
+        if (retention != null) {
+            throw new IllegalStateException("recovery is only supported with unbounded retention");
+        }
+
+        var journalPosition = 0L;
+        if (Files.exists(snapshotPath)) {
+            var snapshot = EngineSnapshot.read(snapshotPath);
+            if (snapshot.transactionIds.getWindowSize() != transactionIds.getWindowSize()
+                || snapshot.patternDetector.getThreshold() != patternDetector.getThreshold()) {
+                throw new IllegalStateException("snapshot was taken with a different engine configuration");
+            }
+            if (!snapshot.matchesRules(fraudRules.getRules())) {
+                throw new IllegalStateException("snapshot was taken with a different fraud rule pipeline");
+            }
+
+            journalPosition = snapshot.journalPosition;
+            accountAggregates = snapshot.accountAggregates;
+            transactionIds = snapshot.transactionIds;
+            patternDetector = snapshot.patternDetector;
+            snapshot.restoreRules(fraudRules.getRules());
+        }
+
+        transactionHistory.ensureCapacity((int) journal.size());
+        journal.replay(0, journalPosition, transactionHistory::add);
+        journal.replay(journalPosition, (transactionId, accountId, amount, isDebit) -> {
+            transactionHistory.add(transactionId, accountId, amount, isDebit);
+            indexTransaction(transactionId, accountId, amount, isDebit, 0);
+        });
+    }
+
+    private void journalTransaction(long transactionId, int accountId, int amount, boolean isDebit) {
+        if (journal != null) {
+            journal.append(transactionId, accountId, amount, isDebit);
+        }
+    }
+
+    private boolean isDuplicate(long transactionId) {
+        if (duplicateFilter != null && !duplicateFilter.mightContain(transactionId)) {
+            return false;
+        }
+        if (transactionIds.contains(transactionId)) {
+            return true;
+        }
+        if (duplicateFilter == null) {
+            return false;
+        }
+        if (isRecorded(transactionId)) {
+            return true;
+        }
+        if (metricsEnabled) {
+            metrics.recordUnconfirmedFilterHit();
+        }
+        return false;
+    }
+
+    private boolean isRecorded(long transactionId) {
+        if (journal != null) {
+            return journal.find(transactionId) >= 0;
+        }
+
+        var first = retention == null ? 0 : retention.getFirstRetained();
+        for (var i = transactionHistory.size() - 1; i >= first; i--) {
+            if (transactionHistory.getTransactionId(i) == transactionId
+                && (retention == null || !retention.isEvicted(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void requireTimestamp(long timestamp) {
+        if (timestamp == 0 && scoringWindow.isTimeBased()) {
+            throw new IllegalArgumentException("time window scoring requires transaction timestamps");
+        }
+        if (timestamp == 0 && retention != null && retention.isTimeBased()) {
+            throw new IllegalArgumentException("age based retention requires transaction timestamps");
+        }
+    }
+
+    private void onEvicted(long transactionId, int accountId, int amount) {
+        accountAggregates.remove(accountId, amount);
+        if (transactionIds.getWindowSize() == 0) {
+            transactionIds.remove(transactionId);
+        }
+    }
+
+    private void indexTransaction(long transactionId, int accountId, int amount, boolean isDebit, long timestamp) {
+        accountAggregates.add(accountId, amount);
+        if (windowedAggregates != null) {
+            windowedAggregates.add(accountId, amount, timestamp);
+        }
+        transactionIds.add(transactionId);
+        if (duplicateFilter != null) {
+            duplicateFilter.put(transactionId);
+        }
+        patternDetector.advance(transactionId, amount);
+        fraudRules.onTransactionAccepted(transactionId, accountId, amount, isDebit, timestamp);
+    }
 }
@@ -0,0 +1,30 @@
+package domain;
+
+import java.nio.ByteOrder;
+
+public final class TransactionFrame {
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    public static final int BLOCK_LENGTH_OFFSET = 0;
+    public static final int TEMPLATE_ID_OFFSET = 2;
+    public static final int SCHEMA_ID_OFFSET = 4;
+    public static final int VERSION_OFFSET = 6;
+    public static final int HEADER_LENGTH = 8;
+
+    public static final int TRANSACTION_ID_OFFSET = 0;
+    public static final int TIMESTAMP_OFFSET = 8;
+    public static final int ACCOUNT_ID_OFFSET = 16;
+    public static final int AMOUNT_OFFSET = 20;
+    public static final int FLAGS_OFFSET = 24;
+    public static final int BLOCK_LENGTH = 32;
+    public static final int FRAME_LENGTH = HEADER_LENGTH + BLOCK_LENGTH;
+
+    public static final int TEMPLATE_ID = 1;
+    public static final int SCHEMA_ID = 0x4653;
+    public static final int VERSION = 1;
+
+    public static final byte DEBIT_FLAG = 1;
+
+    private TransactionFrame() {
+    }
+}
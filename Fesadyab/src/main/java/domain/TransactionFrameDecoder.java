@@ -0,0 +1,97 @@
+package domain;
+
+import static domain.TransactionFrame.ACCOUNT_ID_OFFSET;
+import static domain.TransactionFrame.AMOUNT_OFFSET;
+import static domain.TransactionFrame.BLOCK_LENGTH;
+import static domain.TransactionFrame.BLOCK_LENGTH_OFFSET;
+import static domain.TransactionFrame.BYTE_ORDER;
+import static domain.TransactionFrame.DEBIT_FLAG;
+import static domain.TransactionFrame.FLAGS_OFFSET;
+import static domain.TransactionFrame.HEADER_LENGTH;
+import static domain.TransactionFrame.SCHEMA_ID;
+import static domain.TransactionFrame.SCHEMA_ID_OFFSET;
+import static domain.TransactionFrame.TEMPLATE_ID;
+import static domain.TransactionFrame.TEMPLATE_ID_OFFSET;
+import static domain.TransactionFrame.TIMESTAMP_OFFSET;
+import static domain.TransactionFrame.TRANSACTION_ID_OFFSET;
+import static domain.TransactionFrame.VERSION_OFFSET;
+
+import java.nio.ByteBuffer;
+
+public class TransactionFrameDecoder {
+    private ByteBuffer buffer;
+    private int block;
+    private int blockLength;
+    private int version;
+
+    public TransactionFrameDecoder wrap(ByteBuffer buffer, int offset) {
+        if (buffer.order() != BYTE_ORDER) {
+            throw new IllegalArgumentException("buffer must use " + BYTE_ORDER + " byte order");
+        }
+        if (offset < 0 || offset + HEADER_LENGTH > buffer.limit()) {
+            throw new IndexOutOfBoundsException("frame header at " + offset + " is outside the buffer");
+        }
+
+        var templateId = Short.toUnsignedInt(buffer.getShort(offset + TEMPLATE_ID_OFFSET));
+        var schemaId = Short.toUnsignedInt(buffer.getShort(offset + SCHEMA_ID_OFFSET));
+        if (templateId != TEMPLATE_ID || schemaId != SCHEMA_ID) {
+            throw new IllegalArgumentException("frame at " + offset + " is not a transaction frame");
+        }
+        var actingBlockLength = Short.toUnsignedInt(buffer.getShort(offset + BLOCK_LENGTH_OFFSET));
+        if (actingBlockLength < BLOCK_LENGTH) {
+            throw new IllegalArgumentException("frame at " + offset + " has a truncated block");
+        }
+        if (offset + HEADER_LENGTH + actingBlockLength > buffer.limit()) {
+            throw new IndexOutOfBoundsException("frame at " + offset + " is outside the buffer");
+        }
+
+        this.buffer = buffer;
+        this.block = offset + HEADER_LENGTH;
+        this.blockLength = actingBlockLength;
+        this.version = Short.toUnsignedInt(buffer.getShort(offset + VERSION_OFFSET));
+        return this;
+    }
+
+    public long transactionId() {
+        return buffer.getLong(block + TRANSACTION_ID_OFFSET);
+    }
+
+    public long timestamp() {
+        return buffer.getLong(block + TIMESTAMP_OFFSET);
+    }
+
+    public int accountId() {
+        return buffer.getInt(block + ACCOUNT_ID_OFFSET);
+    }
+
+    public int amount() {
+        return buffer.getInt(block + AMOUNT_OFFSET);
+    }
+
+    public boolean isDebit() {
+        return (buffer.get(block + FLAGS_OFFSET) & DEBIT_FLAG) != 0;
+    }
+
+    public int version() {
+        return version;
+    }
+
+    public int encodedLength() {
+        return HEADER_LENGTH + blockLength;
+    }
+
+    public int decodeInto(TransactionEngine transactionEngine) {
+        return transactionEngine.addTransactionAndDetectFraud(transactionId(), accountId(), amount(), isDebit(),
+            timestamp());
+    }
+
+    public Transaction decode() {
+        return Transaction.builder()
+            .transactionId(transactionId())
+            .accountId(accountId())
+            .amount(amount())
+            .isDebit(isDebit())
+            .timestamp(timestamp())
+            .build();
+    }
+}
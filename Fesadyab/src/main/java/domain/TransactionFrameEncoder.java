@@ -0,0 +1,81 @@
+package domain;
+
+import static domain.TransactionFrame.ACCOUNT_ID_OFFSET;
+import static domain.TransactionFrame.AMOUNT_OFFSET;
+import static domain.TransactionFrame.BLOCK_LENGTH;
+import static domain.TransactionFrame.BLOCK_LENGTH_OFFSET;
+import static domain.TransactionFrame.BYTE_ORDER;
+import static domain.TransactionFrame.DEBIT_FLAG;
+import static domain.TransactionFrame.FLAGS_OFFSET;
+import static domain.TransactionFrame.FRAME_LENGTH;
+import static domain.TransactionFrame.HEADER_LENGTH;
+import static domain.TransactionFrame.SCHEMA_ID;
+import static domain.TransactionFrame.SCHEMA_ID_OFFSET;
+import static domain.TransactionFrame.TEMPLATE_ID;
+import static domain.TransactionFrame.TEMPLATE_ID_OFFSET;
+import static domain.TransactionFrame.TIMESTAMP_OFFSET;
+import static domain.TransactionFrame.TRANSACTION_ID_OFFSET;
+import static domain.TransactionFrame.VERSION;
+import static domain.TransactionFrame.VERSION_OFFSET;
+
+import java.nio.ByteBuffer;
+
+public class TransactionFrameEncoder {
+    private ByteBuffer buffer;
+    private int block;
+
+    public TransactionFrameEncoder wrap(ByteBuffer buffer, int offset) {
+        if (buffer.order() != BYTE_ORDER) {
+            throw new IllegalArgumentException("buffer must use " + BYTE_ORDER + " byte order");
+        }
+        if (offset < 0 || offset + FRAME_LENGTH > buffer.capacity()) {
+            throw new IndexOutOfBoundsException("frame at " + offset + " does not fit the buffer");
+        }
+
+        this.buffer = buffer;
+        this.block = offset + HEADER_LENGTH;
+        buffer.putShort(offset + BLOCK_LENGTH_OFFSET, (short) BLOCK_LENGTH);
+        buffer.putShort(offset + TEMPLATE_ID_OFFSET, (short) TEMPLATE_ID);
+        buffer.putShort(offset + SCHEMA_ID_OFFSET, (short) SCHEMA_ID);
+        buffer.putShort(offset + VERSION_OFFSET, (short) VERSION);
+        buffer.putLong(block + FLAGS_OFFSET, 0);
+        return this;
+    }
+
+    public TransactionFrameEncoder transactionId(long transactionId) {
+        buffer.putLong(block + TRANSACTION_ID_OFFSET, transactionId);
+        return this;
+    }
+
+    public TransactionFrameEncoder timestamp(long timestamp) {
+        buffer.putLong(block + TIMESTAMP_OFFSET, timestamp);
+        return this;
+    }
+
+    public TransactionFrameEncoder accountId(int accountId) {
+        buffer.putInt(block + ACCOUNT_ID_OFFSET, accountId);
+        return this;
+    }
+
+    public TransactionFrameEncoder amount(int amount) {
+        buffer.putInt(block + AMOUNT_OFFSET, amount);
+        return this;
+    }
+
+    public TransactionFrameEncoder isDebit(boolean isDebit) {
+        buffer.put(block + FLAGS_OFFSET, isDebit ? DEBIT_FLAG : 0);
+        return this;
+    }
+
+    public TransactionFrameEncoder encode(Transaction txn) {
+        return transactionId(txn.getTransactionId())
+            .timestamp(txn.getTimestamp())
+            .accountId(txn.getAccountId())
+            .amount(txn.getAmount())
+            .isDebit(txn.isDebit());
+    }
+
+    public int encodedLength() {
+        return FRAME_LENGTH;
+    }
+}
@@ -0,0 +1,42 @@
+package domain;
+
+import java.util.BitSet;
+
+public interface TransactionHistory {
+
+    void add(long transactionId, int accountId, int amount, boolean isDebit);
+
+    default void add(Transaction txn) {
+        add(txn.transactionId, txn.accountId, txn.amount, txn.isDebit);
+    }
+
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    long getTransactionId(int index);
+
+    int getAccountId(int index);
+
+    int getAmount(int index);
+
+    boolean isDebit(int index);
+
+    default Transaction get(int index) {
+        return Transaction.builder()
+            .transactionId(getTransactionId(index))
+            .accountId(getAccountId(index))
+            .amount(getAmount(index))
+            .isDebit(isDebit(index))
+            .build();
+    }
+
+    default void ensureCapacity(int capacity) {
+    }
+
+    void removeAll(BitSet indices);
+
+    long estimateMemoryBytes();
+}
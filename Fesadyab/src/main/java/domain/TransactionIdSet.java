@@ -0,0 +1,94 @@
+package domain;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+class TransactionIdSet {
+    private final LongIntHashMap ids = new LongIntHashMap(false);
+
+    private final long[] window;
+    private int windowHead;
+    private int windowSize;
+
+    TransactionIdSet() {
+        this(0);
+    }
+
+    TransactionIdSet(int windowSize) {
+        if (windowSize < 0) {
+            throw new IllegalArgumentException("window size must not be negative");
+        }
+        this.window = new long[windowSize];
+    }
+
+    boolean contains(long transactionId) {
+        return ids.containsKey(transactionId);
+    }
+
+    boolean add(long transactionId) {
+        if (!ids.add(transactionId)) {
+            return false;
+        }
+
+        if (window.length > 0) {
+            if (windowSize == window.length) {
+                ids.remove(window[windowHead]);
+                window[windowHead] = transactionId;
+                windowHead = (windowHead + 1) % window.length;
+            } else {
+                window[(windowHead + windowSize) % window.length] = transactionId;
+                windowSize++;
+            }
+        }
+        return true;
+    }
+
+    boolean remove(long transactionId) {
+        return ids.remove(transactionId);
+    }
+
+    int size() {
+        return ids.size();
+    }
+
+    void ensureCapacity(int expectedSize) {
+        ids.ensureCapacity(window.length > 0 ? Math.min(expectedSize, window.length) : expectedSize);
+    }
+
+    long estimateMemoryBytes() {
+        return ids.estimateMemoryBytes() + (long) window.length * Long.BYTES;
+    }
+
+    int getWindowSize() {
+        return window.length;
+    }
+
+    void writeTo(DataOutput output) throws IOException {
+        output.writeInt(window.length);
+
+        if (window.length > 0) {
+            output.writeInt(windowSize);
+            for (var i = 0; i < windowSize; i++) {
+                output.writeLong(window[(windowHead + i) % window.length]);
+            }
+            return;
+        }
+
+        var transactionIds = ids.toKeyArray();
+        output.writeInt(transactionIds.length);
+        for (long transactionId : transactionIds) {
+            output.writeLong(transactionId);
+        }
+    }
+
+    static TransactionIdSet readFrom(DataInput input) throws IOException {
+        var transactionIds = new TransactionIdSet(input.readInt());
+        var size = input.readInt();
+        transactionIds.ensureCapacity(size);
+        for (var i = 0; i < size; i++) {
+            transactionIds.add(input.readLong());
+        }
+        return transactionIds;
+    }
+}
@@ -0,0 +1,210 @@
+package domain;
+
+import static domain.TransactionLayout.ACCOUNT_ID_OFFSET;
+import static domain.TransactionLayout.AMOUNT_OFFSET;
+import static domain.TransactionLayout.BYTE_ORDER;
+import static domain.TransactionLayout.DEBIT_FLAG;
+import static domain.TransactionLayout.FLAGS_OFFSET;
+import static domain.TransactionLayout.TRANSACTION_ID_OFFSET;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.zip.CRC32C;
+
+public class TransactionJournal implements AutoCloseable {
+    static final int PAGE_LENGTH = 4096;
+    static final int RECORD_LENGTH = 32;
+    static final int HEADER_LENGTH = 2 * PAGE_LENGTH;
+
+    private static final int EPOCH_OFFSET = 20;
+    private static final int CHECKSUM_OFFSET = 24;
+
+    private static final int MAGIC = 0x46534a4c;
+    private static final int VERSION = 2;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int SEQUENCE_OFFSET = 8;
+    private static final int CHECKPOINT_OFFSET = 16;
+    private static final int HEADER_EPOCH_OFFSET = 24;
+    private static final int HEADER_CHECKSUM_OFFSET = 28;
+
+    private static final int SEGMENT_SHIFT = 20;
+    private static final int RECORDS_PER_SEGMENT = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = RECORDS_PER_SEGMENT - 1;
+    private static final long SEGMENT_LENGTH = (long) RECORDS_PER_SEGMENT * RECORD_LENGTH;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final ArrayList<MappedByteBuffer> segments = new ArrayList<>();
+    private final CRC32C checksum = new CRC32C();
+    private long sequence;
+    private long checkpoint;
+    private int epoch;
+    private long size;
+
+    private TransactionJournal(FileChannel channel) throws IOException {
+        this.channel = channel;
+
+        var fileLength = channel.size();
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_LENGTH);
+        header.order(BYTE_ORDER);
+        var slot = findHeaderSlot();
+        if (slot >= 0) {
+            sequence = header.getLong(slot + SEQUENCE_OFFSET);
+            checkpoint = header.getLong(slot + CHECKPOINT_OFFSET);
+            epoch = header.getInt(slot + HEADER_EPOCH_OFFSET);
+        } else if (fileLength > 0) {
+            throw new IOException("transaction journal has no valid header");
+        }
+
+        var segmentCount = Math.max(0, fileLength - HEADER_LENGTH + SEGMENT_LENGTH - 1) / SEGMENT_LENGTH;
+        for (var i = 0; i < segmentCount; i++) {
+            mapSegment();
+        }
+        size = findEnd();
+        epoch++;
+        writeHeader();
+    }
+
+    public static TransactionJournal open(Path path) throws IOException {
+        return new TransactionJournal(FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    public long append(long transactionId, int accountId, int amount, boolean isDebit) {
+        if ((size >>> SEGMENT_SHIFT) == segments.size()) {
+            try {
+                mapSegment();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        var segment = segmentOf(size);
+        var offset = offsetOf(size);
+        segment.putLong(offset + TRANSACTION_ID_OFFSET, transactionId);
+        segment.putInt(offset + ACCOUNT_ID_OFFSET, accountId);
+        segment.putInt(offset + AMOUNT_OFFSET, amount);
+        segment.put(offset + FLAGS_OFFSET, isDebit ? DEBIT_FLAG : 0);
+        segment.putInt(offset + EPOCH_OFFSET, epoch);
+        segment.putInt(offset + CHECKSUM_OFFSET, checksumOf(segment, offset, CHECKSUM_OFFSET));
+        return size++;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long find(long transactionId) {
+        for (var position = size - 1; position >= 0; position--) {
+            if (segmentOf(position).getLong(offsetOf(position) + TRANSACTION_ID_OFFSET) == transactionId) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    public void replay(long from, long to, TransactionConsumer consumer) {
+        if (from < 0 || from > to || to > size) {
+            throw new IndexOutOfBoundsException("replay range [" + from + ", " + to + ") is outside the journal");
+        }
+
+        for (var position = from; position < to; position++) {
+            var segment = segmentOf(position);
+            var offset = offsetOf(position);
+            consumer.accept(
+                segment.getLong(offset + TRANSACTION_ID_OFFSET),
+                segment.getInt(offset + ACCOUNT_ID_OFFSET),
+                segment.getInt(offset + AMOUNT_OFFSET),
+                (segment.get(offset + FLAGS_OFFSET) & DEBIT_FLAG) != 0);
+        }
+    }
+
+    public void replay(long from, TransactionConsumer consumer) {
+        replay(from, size, consumer);
+    }
+
+    public void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        checkpoint = size;
+        writeHeader();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private void mapSegment() throws IOException {
+        var segment = channel.map(FileChannel.MapMode.READ_WRITE,
+            HEADER_LENGTH + segments.size() * SEGMENT_LENGTH, SEGMENT_LENGTH);
+        segment.order(BYTE_ORDER);
+        segments.add(segment);
+    }
+
+    private int findHeaderSlot() {
+        var found = -1;
+        for (var slot = 0; slot < HEADER_LENGTH; slot += PAGE_LENGTH) {
+            if (header.getInt(slot + MAGIC_OFFSET) != MAGIC || header.getInt(slot + VERSION_OFFSET) != VERSION
+                || header.getInt(slot + HEADER_CHECKSUM_OFFSET) != checksumOf(header, slot, HEADER_CHECKSUM_OFFSET)) {
+                continue;
+            }
+            if (found < 0 || header.getLong(slot + SEQUENCE_OFFSET) > header.getLong(found + SEQUENCE_OFFSET)) {
+                found = slot;
+            }
+        }
+        return found;
+    }
+
+    private void writeHeader() {
+        sequence++;
+        var slot = (int) (sequence & 1) * PAGE_LENGTH;
+        header.putInt(slot + MAGIC_OFFSET, MAGIC);
+        header.putInt(slot + VERSION_OFFSET, VERSION);
+        header.putLong(slot + SEQUENCE_OFFSET, sequence);
+        header.putLong(slot + CHECKPOINT_OFFSET, checkpoint);
+        header.putInt(slot + HEADER_EPOCH_OFFSET, epoch);
+        header.putInt(slot + HEADER_CHECKSUM_OFFSET, checksumOf(header, slot, HEADER_CHECKSUM_OFFSET));
+        header.force();
+    }
+
+    private long findEnd() {
+        var capacity = (long) segments.size() * RECORDS_PER_SEGMENT;
+        var position = Math.min(checkpoint, capacity);
+        var previousEpoch = 0;
+        for (; position < capacity; position++) {
+            var segment = segmentOf(position);
+            var offset = offsetOf(position);
+            var recordEpoch = segment.getInt(offset + EPOCH_OFFSET);
+            if (recordEpoch < previousEpoch || recordEpoch > epoch
+                || segment.getInt(offset + CHECKSUM_OFFSET) != checksumOf(segment, offset, CHECKSUM_OFFSET)) {
+                break;
+            }
+            previousEpoch = recordEpoch;
+        }
+        return position;
+    }
+
+    private int checksumOf(ByteBuffer buffer, int offset, int length) {
+        checksum.reset();
+        checksum.update(buffer.slice(offset, length));
+        return (int) checksum.getValue();
+    }
+
+    private MappedByteBuffer segmentOf(long position) {
+        return segments.get((int) (position >>> SEGMENT_SHIFT));
+    }
+
+    private static int offsetOf(long position) {
+        return (int) (position & SEGMENT_MASK) * RECORD_LENGTH;
+    }
+}
@@ -0,0 +1,18 @@
+package domain;
+
+import java.nio.ByteOrder;
+
+final class TransactionLayout {
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    static final int TRANSACTION_ID_OFFSET = 0;
+    static final int ACCOUNT_ID_OFFSET = 8;
+    static final int AMOUNT_OFFSET = 12;
+    static final int FLAGS_OFFSET = 16;
+    static final int RECORD_LENGTH = 24;
+
+    static final byte DEBIT_FLAG = 1;
+
+    private TransactionLayout() {
+    }
+}
@@ -0,0 +1,97 @@
+package domain;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class TransactionReplay {
+    private static final long MAX_MAPPING = 1L << 30;
+
+    public record Result(long records, long fraudulent, long elapsedNanos) {
+
+        public double recordsPerSecond() {
+            return elapsedNanos == 0 ? 0 : records * 1e9 / elapsedNanos;
+        }
+    }
+
+    public static Result replay(Path path, TransactionEngine transactionEngine) throws IOException {
+        var decoder = new TransactionFrameDecoder();
+        var records = 0L;
+        var fraudulent = 0L;
+        var startedAt = System.nanoTime();
+
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var position = 0L;
+            while (position < channel.size()) {
+                var length = Math.min(MAX_MAPPING, channel.size() - position);
+                var buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length)
+                    .order(TransactionFrame.BYTE_ORDER);
+
+                var offset = 0;
+                while (fits(buffer, offset)) {
+                    if (decoder.wrap(buffer, offset).decodeInto(transactionEngine) != 0) {
+                        fraudulent++;
+                    }
+                    records++;
+                    offset += decoder.encodedLength();
+                }
+                if (offset == 0) {
+                    throw new IOException("truncated transaction frame at byte " + position + " of " + path);
+                }
+                position += offset;
+            }
+        }
+        return new Result(records, fraudulent, System.nanoTime() - startedAt);
+    }
+
+    public static void generate(Path path, int count, int accounts) throws IOException {
+        var random = ThreadLocalRandom.current();
+        var encoder = new TransactionFrameEncoder();
+        try (var channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+            var framesPerMapping = (int) (MAX_MAPPING / TransactionFrame.FRAME_LENGTH);
+            for (var first = 0; first < count; first += framesPerMapping) {
+                var frames = Math.min(framesPerMapping, count - first);
+                var buffer = channel.map(FileChannel.MapMode.READ_WRITE,
+                    (long) first * TransactionFrame.FRAME_LENGTH, (long) frames * TransactionFrame.FRAME_LENGTH)
+                    .order(TransactionFrame.BYTE_ORDER);
+                for (var i = 0; i < frames; i++) {
+                    encoder.wrap(buffer, i * TransactionFrame.FRAME_LENGTH)
+                        .transactionId(first + i + 1L)
+                        .accountId(random.nextInt(accounts))
+                        .amount(1 + random.nextInt(100_000))
+                        .isDebit(random.nextBoolean());
+                }
+            }
+        }
+    }
+
+    private static boolean fits(ByteBuffer buffer, int offset) {
+        var limit = buffer.limit();
+        if (offset + TransactionFrame.HEADER_LENGTH > limit) {
+            return false;
+        }
+        var blockLength = Short.toUnsignedInt(buffer.getShort(offset + TransactionFrame.BLOCK_LENGTH_OFFSET));
+        return offset + TransactionFrame.HEADER_LENGTH + blockLength <= limit;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 4 && args[0].equals("--generate")) {
+            generate(Path.of(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+            return;
+        }
+        if (args.length != 1) {
+            System.err.println("usage: TransactionReplay <frames-file>");
+            System.err.println("       TransactionReplay --generate <frames-file> <count> <accounts>");
+            System.exit(2);
+        }
+
+        var result = replay(Path.of(args[0]), new TransactionEngine());
+        System.out.printf("replayed %d records (%d fraudulent) in %.3f s: %.0f records/s%n",
+            result.records(), result.fraudulent(), result.elapsedNanos() / 1e9, result.recordsPerSecond());
+    }
+}
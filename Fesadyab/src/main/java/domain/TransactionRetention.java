@@ -0,0 +1,188 @@
+package domain;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+class TransactionRetention {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_COMPACTION = 1024;
+
+    interface EvictionListener {
+        void onEvicted(long transactionId, int accountId, int amount);
+    }
+
+    private final RetentionPolicy retentionPolicy;
+    private final TransactionHistory transactionHistory;
+    private final EvictingPatternDetector patternDetector;
+    private final AccountRecordQueues accountRecords;
+    private final EvictionListener listener;
+    private final LongIntHashMap idCounts = new LongIntHashMap();
+    private final BitSet evicted = new BitSet();
+    private int[] runs = new int[INITIAL_CAPACITY];
+    private long[] timestamps;
+    private int head;
+    private int size;
+    private int repeatedIds;
+
+    TransactionRetention(RetentionPolicy retentionPolicy, TransactionHistory transactionHistory, int threshold,
+        EvictionListener listener) {
+        if (retentionPolicy.isUnbounded()) {
+            throw new IllegalArgumentException("retention needs a bounded retention policy");
+        }
+        this.retentionPolicy = retentionPolicy;
+        this.transactionHistory = transactionHistory;
+        this.patternDetector = new EvictingPatternDetector(threshold);
+        this.accountRecords = retentionPolicy.getMaxRecordsPerAccount() > 0 ? new AccountRecordQueues() : null;
+        this.listener = listener;
+        this.timestamps = retentionPolicy.isTimeBased() ? new long[INITIAL_CAPACITY] : null;
+    }
+
+    void onAppended(int index, int accountId, int amount, long timestamp) {
+        if (index >= runs.length) {
+            var capacity = Math.max(index + 1, runs.length + (runs.length >> 1));
+            runs = Arrays.copyOf(runs, capacity);
+            if (timestamps != null) {
+                timestamps = Arrays.copyOf(timestamps, capacity);
+            }
+        }
+
+        runs[index] = patternDetector.append(amount, index);
+        if (idCounts.addTo(transactionHistory.getTransactionId(index), 1) > 1) {
+            repeatedIds++;
+        }
+        if (timestamps != null) {
+            timestamps[index] = timestamp;
+        }
+        if (accountRecords != null) {
+            accountRecords.append(accountId, index);
+        }
+        size++;
+    }
+
+    void expire(long now) {
+        if (timestamps == null) {
+            return;
+        }
+
+        var oldestRetained = now - retentionPolicy.getMaxAgeMillis();
+        while (size > 0 && timestamps[head] <= oldestRetained) {
+            evict(head);
+        }
+        compactIfSparse();
+    }
+
+    void enforce(int accountId) {
+        enforceLimits(accountId);
+        compactIfSparse();
+    }
+
+    void enforceLimits(int accountId) {
+        if (accountRecords != null) {
+            while (accountRecords.getCount(accountId) > retentionPolicy.getMaxRecordsPerAccount()) {
+                evict(accountRecords.getOldest(accountId));
+            }
+        }
+        if (retentionPolicy.getMaxRecords() > 0) {
+            while (size > retentionPolicy.getMaxRecords()) {
+                evict(head);
+            }
+        }
+    }
+
+    boolean isEvicted(int index) {
+        return evicted.get(index);
+    }
+
+    int getFirstRetained() {
+        return head;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int getTransactionPattern() {
+        return patternDetector.getPattern();
+    }
+
+    boolean isPatternAffectedByRepeatedIds() {
+        if (repeatedIds == 0) {
+            return false;
+        }
+        var step = patternDetector.getStepRecord();
+        return step != EvictingPatternDetector.NO_RECORD
+            && idCounts.get(transactionHistory.getTransactionId(step), 0) > 1;
+    }
+
+    boolean isTimeBased() {
+        return timestamps != null;
+    }
+
+    int getThreshold() {
+        return patternDetector.getThreshold();
+    }
+
+    long estimateMemoryBytes() {
+        return (long) runs.length * Integer.BYTES
+            + (timestamps == null ? 0 : (long) timestamps.length * Long.BYTES)
+            + evicted.size() / Byte.SIZE
+            + patternDetector.estimateMemoryBytes()
+            + idCounts.estimateMemoryBytes()
+            + (accountRecords == null ? 0 : accountRecords.estimateMemoryBytes());
+    }
+
+    void compactIfSparse() {
+        var dead = transactionHistory.size() - size;
+        if (dead < MIN_COMPACTION || dead < size) {
+            return;
+        }
+
+        if (timestamps != null) {
+            var retained = 0;
+            for (var i = evicted.nextClearBit(0); i < transactionHistory.size(); i = evicted.nextClearBit(i + 1)) {
+                timestamps[retained++] = timestamps[i];
+            }
+        }
+        transactionHistory.removeAll(evicted);
+        evicted.clear();
+        head = 0;
+
+        patternDetector.clear();
+        if (accountRecords != null) {
+            accountRecords.clear();
+        }
+        for (var i = 0; i < transactionHistory.size(); i++) {
+            runs[i] = patternDetector.append(transactionHistory.getAmount(i), i);
+            if (accountRecords != null) {
+                accountRecords.append(transactionHistory.getAccountId(i), i);
+            }
+        }
+    }
+
+    private void evict(int index) {
+        var accountId = transactionHistory.getAccountId(index);
+        if (idCounts.addTo(transactionHistory.getTransactionId(index), -1) > 0) {
+            repeatedIds--;
+        }
+        if (accountRecords != null) {
+            accountRecords.removeOldest(accountId);
+        }
+        evicted.set(index);
+        size--;
+
+        if (index == head) {
+            head = evicted.nextClearBit(index + 1);
+            if (size > 0) {
+                patternDetector.rebase(transactionHistory.getAmount(head), runs[head], head);
+                runs[head] = EvictingPatternDetector.NO_RUN;
+            } else {
+                patternDetector.clear();
+            }
+        } else if (runs[index] != EvictingPatternDetector.NO_RUN) {
+            patternDetector.remove(runs[index], index);
+        }
+
+        listener.onEvicted(transactionHistory.getTransactionId(index), accountId,
+            transactionHistory.getAmount(index));
+    }
+}
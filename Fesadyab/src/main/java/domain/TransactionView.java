@@ -0,0 +1,80 @@
+package domain;
+
+import static domain.TransactionLayout.ACCOUNT_ID_OFFSET;
+import static domain.TransactionLayout.AMOUNT_OFFSET;
+import static domain.TransactionLayout.BYTE_ORDER;
+import static domain.TransactionLayout.DEBIT_FLAG;
+import static domain.TransactionLayout.FLAGS_OFFSET;
+import static domain.TransactionLayout.RECORD_LENGTH;
+import static domain.TransactionLayout.TRANSACTION_ID_OFFSET;
+
+import java.nio.ByteBuffer;
+
+public class TransactionView {
+    private ByteBuffer buffer;
+    private int offset;
+    private int limit;
+
+    public TransactionView wrap(ByteBuffer buffer) {
+        return wrap(buffer, buffer.position(), buffer.remaining());
+    }
+
+    public TransactionView wrap(ByteBuffer buffer, int offset, int length) {
+        if (buffer.order() != BYTE_ORDER) {
+            throw new IllegalArgumentException("buffer must use " + BYTE_ORDER + " byte order");
+        }
+        if (length % RECORD_LENGTH != 0) {
+            throw new IllegalArgumentException("buffer must hold whole " + RECORD_LENGTH + "-byte records");
+        }
+
+        this.buffer = buffer;
+        this.offset = offset - RECORD_LENGTH;
+        this.limit = offset + length;
+        return this;
+    }
+
+    public boolean next() {
+        if (offset + RECORD_LENGTH >= limit) {
+            return false;
+        }
+        offset += RECORD_LENGTH;
+        return true;
+    }
+
+    public long getTransactionId() {
+        return buffer.getLong(offset + TRANSACTION_ID_OFFSET);
+    }
+
+    public int getAccountId() {
+        return buffer.getInt(offset + ACCOUNT_ID_OFFSET);
+    }
+
+    public int getAmount() {
+        return buffer.getInt(offset + AMOUNT_OFFSET);
+    }
+
+    public boolean isDebit() {
+        return (buffer.get(offset + FLAGS_OFFSET) & DEBIT_FLAG) != 0;
+    }
+
+    public TransactionView setTransactionId(long transactionId) {
+        buffer.putLong(offset + TRANSACTION_ID_OFFSET, transactionId);
+        return this;
+    }
+
+    public TransactionView setAccountId(int accountId) {
+        buffer.putInt(offset + ACCOUNT_ID_OFFSET, accountId);
+        return this;
+    }
+
+    public TransactionView setAmount(int amount) {
+        buffer.putInt(offset + AMOUNT_OFFSET, amount);
+        return this;
+    }
+
+    public TransactionView setDebit(boolean isDebit) {
+        var flags = buffer.get(offset + FLAGS_OFFSET);
+        buffer.put(offset + FLAGS_OFFSET, (byte) (isDebit ? flags | DEBIT_FLAG : flags & ~DEBIT_FLAG));
+        return this;
+    }
+}
@@ -0,0 +1,148 @@
+package domain;
+
+import java.util.Arrays;
+
+class WindowedAccountAggregates {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_RING_CAPACITY = 8;
+
+    private final ScoringWindow scoringWindow;
+
+    private final LongIntHashMap slots = new LongIntHashMap();
+    private int[] counts;
+    private int[] heads;
+    private long[] sums;
+    private int[][] amounts;
+    private long[][] timestamps;
+    private int size;
+    private long ringBytes;
+
+    WindowedAccountAggregates(ScoringWindow scoringWindow) {
+        if (scoringWindow.isAllTime()) {
+            throw new IllegalArgumentException("windowed aggregates need a bounded scoring window");
+        }
+        this.scoringWindow = scoringWindow;
+        counts = new int[INITIAL_CAPACITY];
+        heads = new int[INITIAL_CAPACITY];
+        sums = new long[INITIAL_CAPACITY];
+        amounts = new int[INITIAL_CAPACITY][];
+        timestamps = new long[INITIAL_CAPACITY][];
+    }
+
+    void add(int accountId, int amount, long timestamp) {
+        var slot = find(accountId);
+        if (slot < 0) {
+            if (size == counts.length) {
+                grow(size * 2);
+            }
+            slot = size++;
+            slots.put(accountId, slot);
+            amounts[slot] = new int[Math.min(INITIAL_RING_CAPACITY, scoringWindow.getMaxTransactions())];
+            if (scoringWindow.isTimeBased()) {
+                timestamps[slot] = new long[amounts[slot].length];
+            }
+            ringBytes += ringBytesOf(amounts[slot].length);
+        }
+
+        expire(slot, timestamp);
+        if (counts[slot] == scoringWindow.getMaxTransactions()) {
+            evictOldest(slot);
+        } else if (counts[slot] == amounts[slot].length) {
+            growRing(slot);
+        }
+
+        var ring = amounts[slot];
+        var tail = (heads[slot] + counts[slot]) % ring.length;
+        ring[tail] = amount;
+        if (timestamps[slot] != null) {
+            timestamps[slot][tail] = timestamp;
+        }
+        counts[slot]++;
+        sums[slot] += amount;
+    }
+
+    int getAverage(int accountId, long now) {
+        var slot = find(accountId);
+        if (slot < 0) {
+            return 0;
+        }
+        expire(slot, now);
+        return average(slot);
+    }
+
+    int getAverage(int accountId) {
+        var slot = find(accountId);
+        return slot < 0 ? 0 : average(slot);
+    }
+
+    long getSum(int accountId) {
+        var slot = find(accountId);
+        return slot < 0 ? 0 : sums[slot];
+    }
+
+    int getCount(int accountId) {
+        var slot = find(accountId);
+        return slot < 0 ? 0 : counts[slot];
+    }
+
+    long estimateMemoryBytes() {
+        return slots.estimateMemoryBytes() + (long) counts.length * (2 * Integer.BYTES + Long.BYTES + 2 * Long.BYTES)
+            + ringBytes;
+    }
+
+    private long ringBytesOf(int capacity) {
+        return (long) capacity * (scoringWindow.isTimeBased() ? Integer.BYTES + Long.BYTES : Integer.BYTES);
+    }
+
+    private int average(int slot) {
+        return counts[slot] == 0 ? 0 : (int) (sums[slot] / counts[slot]);
+    }
+
+    private void expire(int slot, long now) {
+        if (!scoringWindow.isTimeBased()) {
+            return;
+        }
+
+        var oldestRetained = now - scoringWindow.getDurationMillis();
+        while (counts[slot] > 0 && timestamps[slot][heads[slot]] <= oldestRetained) {
+            evictOldest(slot);
+        }
+    }
+
+    private void evictOldest(int slot) {
+        sums[slot] -= amounts[slot][heads[slot]];
+        heads[slot] = (heads[slot] + 1) % amounts[slot].length;
+        counts[slot]--;
+    }
+
+    private void growRing(int slot) {
+        var capacity = Math.min(amounts[slot].length * 2, scoringWindow.getMaxTransactions());
+        var grownAmounts = new int[capacity];
+        var grownTimestamps = timestamps[slot] == null ? null : new long[capacity];
+
+        for (var i = 0; i < counts[slot]; i++) {
+            var index = (heads[slot] + i) % amounts[slot].length;
+            grownAmounts[i] = amounts[slot][index];
+            if (grownTimestamps != null) {
+                grownTimestamps[i] = timestamps[slot][index];
+            }
+        }
+
+        ringBytes += ringBytesOf(capacity) - ringBytesOf(amounts[slot].length);
+        amounts[slot] = grownAmounts;
+        timestamps[slot] = grownTimestamps;
+        heads[slot] = 0;
+    }
+
+    private int find(int accountId) {
+        return slots.get(accountId, -1);
+    }
+
+    private void grow(int capacity) {
+        counts = Arrays.copyOf(counts, capacity);
+        heads = Arrays.copyOf(heads, capacity);
+        sums = Arrays.copyOf(sums, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        timestamps = Arrays.copyOf(timestamps, capacity);
+    }
+}
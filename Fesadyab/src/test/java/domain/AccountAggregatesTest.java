@@ -0,0 +1,131 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class AccountAggregatesTest {
+
+    private AccountAggregates accountAggregates;
+
+    @BeforeEach
+    void setUp() {
+        accountAggregates = new AccountAggregates();
+        accountAggregates.add(1, 10_000);
+        accountAggregates.add(2, 25_000);
+        accountAggregates.add(1, 20_000);
+        accountAggregates.add(1, 3_000);
+    }
+
+    @Test
+    @DisplayName("should keep running count, sum, min and max per account")
+    void shouldKeepRunningStatisticsPerAccount() {
+        assertEquals(3, accountAggregates.getCount(1));
+        assertEquals(33_000, accountAggregates.getSum(1));
+        assertEquals(11_000, accountAggregates.getAverage(1));
+        assertEquals(3_000, accountAggregates.getMinimum(1));
+        assertEquals(20_000, accountAggregates.getMaximum(1));
+        assertEquals(1, accountAggregates.getCount(2));
+        assertEquals(2, accountAggregates.size());
+    }
+
+    @Test
+    @DisplayName("should compute population variance of account amounts")
+    void shouldComputeVarianceOfAccountAmounts() {
+        assertEquals(48_666_666.67, accountAggregates.getVariance(1), 0.01);
+        assertEquals(0, accountAggregates.getVariance(2));
+    }
+
+    @Test
+    @DisplayName("should return zero for unknown account")
+    void shouldReturnZeroForUnknownAccount() {
+        assertEquals(0, accountAggregates.getCount(3));
+        assertEquals(0, accountAggregates.getAverage(3));
+        assertEquals(0, accountAggregates.getMinimum(3));
+        assertEquals(0, accountAggregates.getVariance(3));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, -1, Integer.MIN_VALUE, Integer.MAX_VALUE })
+    @DisplayName("should keep every account when growing past initial capacity")
+    void shouldKeepEveryAccountWhenGrowing(int accountIdOffset) {
+        AccountAggregates aggregates = new AccountAggregates();
+        for (var i = 0; i < 1_000; i++) {
+            aggregates.add(accountIdOffset + i, i);
+            aggregates.add(accountIdOffset + i, i + 2);
+        }
+
+        assertEquals(1_000, aggregates.size());
+        for (var i = 0; i < 1_000; i++) {
+            assertEquals(2, aggregates.getCount(accountIdOffset + i));
+            assertEquals(i + 1, aggregates.getAverage(accountIdOffset + i));
+        }
+    }
+
+    @Test
+    @DisplayName("should not overflow sum of busy account")
+    void shouldNotOverflowSumOfBusyAccount() {
+        AccountAggregates aggregates = new AccountAggregates();
+        for (var i = 0; i < 1_000; i++) {
+            aggregates.add(1, Integer.MAX_VALUE);
+        }
+
+        assertEquals(1_000L * Integer.MAX_VALUE, aggregates.getSum(1));
+        assertEquals(Integer.MAX_VALUE, aggregates.getAverage(1));
+        assertEquals(0, aggregates.getVariance(1));
+    }
+
+    @Test
+    @DisplayName("should keep statistics of retained amounts when oldest amounts are removed")
+    void shouldKeepStatisticsOfRetainedAmountsWhenOldestAmountsAreRemoved() {
+        Random random = new Random(7);
+        AccountAggregates aggregates = new AccountAggregates(true);
+        ArrayDeque<Integer> retained = new ArrayDeque<>();
+        for (var i = 0; i < 5_000; i++) {
+            var amount = random.nextInt(100);
+            aggregates.add(1, amount);
+            retained.addLast(amount);
+            if (retained.size() > 20) {
+                aggregates.remove(1, retained.removeFirst());
+            }
+
+            var mean = retained.stream().mapToInt(Integer::intValue).average().orElseThrow();
+            var variance = retained.stream().mapToDouble(value -> (value - mean) * (value - mean)).sum()
+                / retained.size();
+            assertEquals(retained.size(), aggregates.getCount(1));
+            assertEquals(retained.stream().mapToLong(Integer::longValue).sum(), aggregates.getSum(1));
+            assertEquals(retained.stream().mapToInt(Integer::intValue).min().orElseThrow(),
+                aggregates.getMinimum(1));
+            assertEquals(retained.stream().mapToInt(Integer::intValue).max().orElseThrow(),
+                aggregates.getMaximum(1));
+            assertEquals(variance, aggregates.getVariance(1), 1e-6);
+        }
+    }
+
+    @Test
+    @DisplayName("should forget account whose last amount is removed")
+    void shouldForgetAccountWhoseLastAmountIsRemoved() {
+        AccountAggregates aggregates = new AccountAggregates(true);
+        for (var i = 0; i < 1_000; i++) {
+            aggregates.add(i, i);
+        }
+        for (var i = 0; i < 1_000; i += 2) {
+            aggregates.remove(i, i);
+        }
+
+        assertEquals(500, aggregates.size());
+        for (var i = 0; i < 1_000; i++) {
+            assertEquals(i % 2, aggregates.getCount(i));
+            assertEquals(i % 2 == 0 ? 0 : i, aggregates.getAverage(i));
+        }
+        assertThrows(IllegalStateException.class, () -> accountAggregates.remove(1, 10_000));
+    }
+}
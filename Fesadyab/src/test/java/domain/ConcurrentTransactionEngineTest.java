@@ -0,0 +1,157 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentTransactionEngineTest {
+
+    private static final int THREADS = 8;
+    private static final int TRANSACTIONS_PER_THREAD = 5_000;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() { executor = Executors.newFixedThreadPool(THREADS); }
+
+    @AfterEach
+    void tearDown() { executor.shutdownNow(); }
+
+    private static Transaction createTransaction(long transactionId, int accountId, int amount, boolean isDebit) {
+        return Transaction.builder()
+            .transactionId(transactionId)
+            .accountId(accountId)
+            .amount(amount)
+            .isDebit(isDebit)
+            .build();
+    }
+
+    private List<int[]> ingestConcurrently(ConcurrentTransactionEngine engine, List<List<Transaction>> workloads)
+        throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<int[]>> futures = new ArrayList<>();
+        for (List<Transaction> workload : workloads) {
+            Callable<int[]> ingest = () -> {
+                start.await();
+                return workload.stream().mapToInt(engine::addTransactionAndDetectFraud).toArray();
+            };
+            futures.add(executor.submit(ingest));
+        }
+        start.countDown();
+
+        List<int[]> fraudScores = new ArrayList<>();
+        for (Future<int[]> future : futures) {
+            fraudScores.add(future.get());
+        }
+        return fraudScores;
+    }
+
+    @RepeatedTest(5)
+    @DisplayName("should score account-partitioned workloads like the single threaded engine")
+    void shouldScoreAccountPartitionedWorkloadsLikeSingleThreadedEngine() throws Exception {
+        Random random = new Random();
+        List<List<Transaction>> workloads = new ArrayList<>();
+        for (var thread = 0; thread < THREADS; thread++) {
+            List<Transaction> workload = new ArrayList<>();
+            for (var i = 0; i < TRANSACTIONS_PER_THREAD; i++) {
+                workload.add(createTransaction(thread * 1_000_000L + i, thread * 10 + random.nextInt(10),
+                    1 + random.nextInt(1_000), random.nextBoolean()));
+            }
+            workloads.add(workload);
+        }
+
+        ConcurrentTransactionEngine concurrentEngine = new ConcurrentTransactionEngine(4);
+        List<int[]> fraudScores = ingestConcurrently(concurrentEngine, workloads);
+
+        TransactionEngine sequentialEngine = new TransactionEngine();
+        for (var thread = 0; thread < THREADS; thread++) {
+            int[] expectedFraudScores = workloads.get(thread).stream()
+                .mapToInt(sequentialEngine::addTransactionAndDetectFraud)
+                .toArray();
+            assertArrayEquals(expectedFraudScores, fraudScores.get(thread));
+        }
+        for (var accountId = 0; accountId < THREADS * 10; accountId++) {
+            assertEquals(sequentialEngine.getAverageTransactionAmountByAccount(accountId),
+                concurrentEngine.getAverageTransactionAmountByAccount(accountId));
+        }
+    }
+
+    @RepeatedTest(5)
+    @DisplayName("should accept each transaction id once when threads race on duplicates")
+    void shouldAcceptEachTransactionIdOnceWhenThreadsRaceOnDuplicates() throws Exception {
+        Random random = new Random();
+        List<Transaction> transactions = new ArrayList<>();
+        for (var i = 0; i < TRANSACTIONS_PER_THREAD; i++) {
+            transactions.add(createTransaction(i, random.nextInt(50), 1 + random.nextInt(1_000), false));
+        }
+        List<List<Transaction>> workloads = new ArrayList<>();
+        for (var thread = 0; thread < THREADS; thread++) {
+            List<Transaction> workload = new ArrayList<>(transactions);
+            Collections.shuffle(workload, random);
+            workloads.add(workload);
+        }
+
+        ConcurrentTransactionEngine concurrentEngine = new ConcurrentTransactionEngine();
+        ingestConcurrently(concurrentEngine, workloads);
+
+        TransactionEngine sequentialEngine = new TransactionEngine();
+        transactions.forEach(sequentialEngine::addTransactionAndDetectFraud);
+        assertEquals(transactions.size(), concurrentEngine.getTransactionCount());
+        for (var accountId = 0; accountId < 50; accountId++) {
+            assertEquals(sequentialEngine.accountAggregates.getCount(accountId),
+                concurrentEngine.getTransactionCountByAccount(accountId));
+            assertEquals(sequentialEngine.getAverageTransactionAmountByAccount(accountId),
+                concurrentEngine.getAverageTransactionAmountByAccount(accountId));
+        }
+    }
+
+    @RepeatedTest(5)
+    @DisplayName("should let exactly one transaction observe the pattern before it breaks")
+    void shouldLetExactlyOneTransactionObservePatternBeforeItBreaks() throws Exception {
+        ConcurrentTransactionEngine concurrentEngine = new ConcurrentTransactionEngine();
+        concurrentEngine.addTransactionAndDetectFraud(createTransaction(-1, 0, 500, false));
+
+        List<List<Transaction>> workloads = new ArrayList<>();
+        for (var thread = 0; thread < THREADS; thread++) {
+            List<Transaction> workload = new ArrayList<>();
+            for (var i = 0; i < 1_000; i++) {
+                workload.add(createTransaction(thread * 1_000_000L + i, thread, 1_500, false));
+            }
+            workloads.add(workload);
+        }
+
+        var scoredTransactions = 0;
+        for (int[] fraudScores : ingestConcurrently(concurrentEngine, workloads)) {
+            for (int fraudScore : fraudScores) {
+                if (fraudScore != 0) {
+                    assertEquals(1_000, fraudScore);
+                    scoredTransactions++;
+                }
+            }
+        }
+        assertEquals(1, scoredTransactions);
+        assertEquals(0, concurrentEngine.getTransactionPattern());
+    }
+
+    @Test
+    @DisplayName("should not accept non positive stripe count")
+    void shouldNotAcceptNonPositiveStripeCount() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentTransactionEngine(0));
+    }
+}
@@ -0,0 +1,52 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class FixedPointAmountTest {
+
+    @ParameterizedTest
+    @CsvSource({ "12.34, 1234", "12, 1200", "0.5, 50", "-7.01, -701", "0, 0" })
+    @DisplayName("should parse decimal amount into minor units")
+    void shouldParseDecimalAmountIntoMinorUnits(String amount, long minorUnits) {
+        assertEquals(minorUnits, FixedPointAmount.parse(amount).minorUnits());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "1.001", "abc", "99999999999999999999" })
+    @DisplayName("should reject amount that is not representable")
+    void shouldRejectAmountThatIsNotRepresentable(String amount) {
+        assertThrows(IllegalArgumentException.class, () -> FixedPointAmount.parse(amount));
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "10, 4, 2", "10, 3, 3", "15, 10, 2", "25, 10, 2", "-15, 10, -2", "0, 0, 0" })
+    @DisplayName("should round average half to even")
+    void shouldRoundAverageHalfToEven(long sum, long count, long average) {
+        assertEquals(average, FixedPointAmount.average(sum, count).minorUnits());
+    }
+
+    @Test
+    @DisplayName("should fail instead of overflowing")
+    void shouldFailInsteadOfOverflowing() {
+        assertThrows(ArithmeticException.class,
+            () -> FixedPointAmount.ofMinorUnits(Long.MAX_VALUE).plus(FixedPointAmount.ofMinorUnits(1)));
+        assertThrows(ArithmeticException.class,
+            () -> FixedPointAmount.ofMinorUnits(Integer.MAX_VALUE + 1L).toMinorUnitsExact());
+    }
+
+    @Test
+    @DisplayName("should format amount with fixed scale")
+    void shouldFormatAmountWithFixedScale() {
+        assertEquals("12.30", FixedPointAmount.parse("12.3").toString());
+        assertEquals(new BigDecimal("-0.05"), FixedPointAmount.ofMinorUnits(-5).toBigDecimal());
+    }
+}
@@ -0,0 +1,119 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FraudPipelineTest {
+
+    private static class AlertCollector implements Flow.Subscriber<FraudAlert> {
+        final Map<Long, Integer> fraudScores = new ConcurrentHashMap<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        volatile Throwable failure;
+        private Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(FraudAlert alert) {
+            fraudScores.put(alert.transactionId(), alert.fraudScore());
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            failure = throwable;
+            completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+
+    private static List<Transaction> createTransactions(int count) {
+        Random random = new Random(count);
+        List<Transaction> transactions = new ArrayList<>();
+        for (var i = 0; i < count; i++) {
+            transactions.add(Transaction.builder()
+                .transactionId(i)
+                .accountId(random.nextInt(64))
+                .amount(1 + random.nextInt(1_000))
+                .isDebit(random.nextBoolean())
+                .build());
+        }
+        return transactions;
+    }
+
+    @Test
+    @DisplayName("should emit an alert for every transaction the single threaded engine scores")
+    void shouldEmitAlertForEveryTransactionSingleThreadedEngineScores() throws Exception {
+        List<Transaction> transactions = createTransactions(20_000);
+        Map<Long, Integer> expectedFraudScores = new HashMap<>();
+        TransactionEngine sequentialEngine = new TransactionEngine();
+        for (Transaction transaction : transactions) {
+            var fraudScore = sequentialEngine.addTransactionAndDetectFraud(transaction);
+            if (fraudScore != 0) {
+                expectedFraudScores.put(transaction.getTransactionId(), fraudScore);
+            }
+        }
+
+        FraudPipeline fraudPipeline = new FraudPipeline(4, 64, 8);
+        AlertCollector alertCollector = new AlertCollector();
+        fraudPipeline.subscribe(alertCollector);
+        try (SubmissionPublisher<Transaction> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(fraudPipeline);
+            transactions.forEach(publisher::submit);
+        }
+
+        assertTrue(alertCollector.completed.await(30, TimeUnit.SECONDS));
+        assertNull(alertCollector.failure);
+        assertEquals(expectedFraudScores, alertCollector.fraudScores);
+        assertEquals(sequentialEngine.transactionHistory.size(),
+            fraudPipeline.getTransactionEngine().getTransactionCount());
+    }
+
+    @Test
+    @DisplayName("should propagate upstream failure to alert subscribers")
+    void shouldPropagateUpstreamFailureToAlertSubscribers() throws Exception {
+        FraudPipeline fraudPipeline = new FraudPipeline(2, 16, 4);
+        AlertCollector alertCollector = new AlertCollector();
+        fraudPipeline.subscribe(alertCollector);
+
+        SubmissionPublisher<Transaction> publisher = new SubmissionPublisher<>();
+        publisher.subscribe(fraudPipeline);
+        createTransactions(100).forEach(publisher::submit);
+        publisher.closeExceptionally(new IllegalStateException("feed failed"));
+
+        assertTrue(alertCollector.completed.await(30, TimeUnit.SECONDS));
+        assertTrue(alertCollector.failure instanceof IllegalStateException);
+    }
+
+    @Test
+    @DisplayName("should reject non positive sizing")
+    void shouldRejectNonPositiveSizing() {
+        assertThrows(IllegalArgumentException.class, () -> new FraudPipeline(0, 16, 16));
+        assertThrows(IllegalArgumentException.class, () -> new FraudPipeline(2, 0, 16));
+        assertThrows(IllegalArgumentException.class, () -> new FraudPipeline(2, 16, 0));
+    }
+}
@@ -0,0 +1,143 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FraudRuleRegistryTest {
+
+    private static class CountingRule implements FraudRule {
+        private final int order;
+        private final int fraudScore;
+        private int evaluations;
+
+        CountingRule(int order, int fraudScore) {
+            this.order = order;
+            this.fraudScore = fraudScore;
+        }
+
+        @Override
+        public int score(FraudContext context, long transactionId, int accountId, int amount, boolean isDebit,
+            long timestamp) {
+            evaluations++;
+            return fraudScore;
+        }
+
+        @Override
+        public int getOrder() {
+            return order;
+        }
+    }
+
+    private static class RepeatedAmountRule implements FraudRule {
+        private int lastAmount;
+
+        @Override
+        public int score(FraudContext context, long transactionId, int accountId, int amount, boolean isDebit,
+            long timestamp) {
+            return context.getTransactionCount(accountId) > 0 && amount == lastAmount ? amount : 0;
+        }
+
+        @Override
+        public void onTransactionAccepted(long transactionId, int accountId, int amount, boolean isDebit,
+            long timestamp) {
+            lastAmount = amount;
+        }
+    }
+
+    @Test
+    @DisplayName("should order rules and keep registration order among equal orders")
+    void shouldOrderRulesAndKeepRegistrationOrderAmongEqualOrders() {
+        CountingRule early = new CountingRule(50, 0);
+        CountingRule late = new CountingRule(300, 0);
+        CountingRule tied = new CountingRule(100, 0);
+        FraudRulePipeline pipeline = FraudRuleRegistry.withBuiltInRules()
+            .register(late)
+            .register(tied)
+            .register(early)
+            .compile();
+
+        assertEquals(List.of(early, FraudRuleRegistry.EXCESSIVE_DEBIT, tied, FraudRuleRegistry.ARITHMETIC_PATTERN,
+            late), pipeline.getRules());
+    }
+
+    @Test
+    @DisplayName("should stop evaluating rules after first fraud score")
+    void shouldStopEvaluatingRulesAfterFirstFraudScore() {
+        CountingRule first = new CountingRule(1, 0);
+        CountingRule second = new CountingRule(2, 7);
+        CountingRule third = new CountingRule(3, 9);
+        TransactionEngine transactionEngine = TransactionEngine.builder()
+            .fraudRules(new FraudRuleRegistry().register(third).register(first).register(second).compile())
+            .build();
+
+        assertEquals(7, transactionEngine.addTransactionAndDetectFraud(1, 1, 100, false));
+        assertEquals(1, first.evaluations);
+        assertEquals(1, second.evaluations);
+        assertEquals(0, third.evaluations);
+    }
+
+    @Test
+    @DisplayName("should record timing of custom rule by its pipeline index")
+    void shouldRecordTimingOfCustomRuleByItsPipelineIndex() {
+        CountingRule custom = new CountingRule(50, 7);
+        RecordingEngineMetrics metrics = new RecordingEngineMetrics();
+        TransactionEngine transactionEngine = TransactionEngine.builder()
+            .fraudRules(FraudRuleRegistry.withBuiltInRules().register(custom).compile())
+            .metrics(metrics)
+            .build();
+
+        transactionEngine.addTransactionAndDetectFraud(1, 1, 100, false);
+        transactionEngine.addTransactionAndDetectFraud(2, 1, 100, false);
+
+        assertEquals(2, metrics.getRuleLatency(custom).getCount());
+        assertEquals(2, metrics.getRuleHits(custom));
+        assertEquals(0, metrics.getAggregateLookupLatency().getCount());
+        assertEquals(0, metrics.getRuleLatency(FraudRuleRegistry.EXCESSIVE_DEBIT).getCount());
+        assertNull(metrics.getRuleLatency(new CountingRule(50, 7)));
+    }
+
+    @Test
+    @DisplayName("should keep metrics bound to a single pipeline")
+    void shouldKeepMetricsBoundToSinglePipeline() {
+        FraudRulePipeline pipeline = FraudRuleRegistry.withBuiltInRules().register(new CountingRule(50, 0)).compile();
+        RecordingEngineMetrics metrics = new RecordingEngineMetrics();
+        TransactionEngine.builder().fraudRules(pipeline).metrics(metrics).build();
+        TransactionEngine.builder().fraudRules(pipeline).metrics(metrics).build();
+
+        assertThrows(IllegalStateException.class,
+            () -> TransactionEngine.builder().metrics(metrics).build());
+    }
+
+    @Test
+    @DisplayName("should feed accepted transactions to stateful rule")
+    void shouldFeedAcceptedTransactionsToStatefulRule() {
+        TransactionEngine transactionEngine = TransactionEngine.builder()
+            .fraudRules(FraudRuleRegistry.withBuiltInRules().register(new RepeatedAmountRule()).compile())
+            .build();
+
+        assertEquals(0, transactionEngine.addTransactionAndDetectFraud(1, 1, 100, false));
+        assertEquals(0, transactionEngine.addTransactionAndDetectFraud(1, 1, 200, false));
+        assertEquals(100, transactionEngine.addTransactionAndDetectFraud(2, 1, 100, false));
+        assertEquals(0, transactionEngine.addTransactionAndDetectFraud(3, 2, 100, false));
+    }
+
+    @Test
+    @DisplayName("should reject rule registered twice")
+    void shouldRejectRuleRegisteredTwice() {
+        FraudRuleRegistry registry = FraudRuleRegistry.withBuiltInRules();
+        assertThrows(IllegalArgumentException.class, () -> registry.register(FraudRuleRegistry.EXCESSIVE_DEBIT));
+    }
+
+    @Test
+    @DisplayName("should keep built in rules when no rule is installed")
+    void shouldKeepBuiltInRulesWhenNoRuleIsInstalled() {
+        assertEquals(List.of(FraudRuleRegistry.EXCESSIVE_DEBIT, FraudRuleRegistry.ARITHMETIC_PATTERN),
+            FraudRuleRegistry.withBuiltInRules().registerInstalled().compile().getRules());
+    }
+}
@@ -0,0 +1,103 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class HistoricalRescorerTest {
+
+    @TempDir
+    Path directory;
+
+    private static TransactionHistory createHistory(int count, long seed) {
+        Random random = new Random(seed);
+        TransactionHistory history = new ColumnarTransactionHistory();
+        for (var i = 0; i < count; i++) {
+            history.add(1 + random.nextInt(count), random.nextInt(200), 1 + random.nextInt(5_000),
+                random.nextInt(4) == 0);
+        }
+        return history;
+    }
+
+    private static int[] replay(TransactionEngine transactionEngine, TransactionHistory history) {
+        return IntStream.range(0, history.size())
+            .map(i -> transactionEngine.addTransactionAndDetectFraud(history.getTransactionId(i),
+                history.getAccountId(i), history.getAmount(i), history.isDebit(i)))
+            .toArray();
+    }
+
+    private int[] rescore(HistoricalRescorer rescorer, TransactionHistory history) {
+        Path output = directory.resolve("scores.bin");
+        var fraudulent = rescorer.rescore(history, output);
+
+        int[] fraudScores = new int[history.size()];
+        var next = new int[1];
+        HistoricalRescorer.readScores(output, fraudScore -> fraudScores[next[0]++] = fraudScore);
+        assertEquals(history.size(), next[0]);
+        assertEquals(Arrays.stream(fraudScores).filter(fraudScore -> fraudScore != 0).count(), fraudulent);
+        return fraudScores;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1, 7, 1_000 })
+    @DisplayName("should rescore history like sequential replay")
+    void shouldRescoreHistoryLikeSequentialReplay(int blockSize) {
+        TransactionHistory history = createHistory(20_000, blockSize);
+        HistoricalRescorer rescorer = HistoricalRescorer.builder().blockSize(blockSize).build();
+        assertArrayEquals(replay(new TransactionEngine(), history), rescore(rescorer, history));
+    }
+
+    @Test
+    @DisplayName("should rescore with deduplication and scoring windows like sequential replay")
+    void shouldRescoreWithWindowsLikeSequentialReplay() {
+        TransactionHistory history = createHistory(20_000, 42);
+        TransactionEngine transactionEngine = TransactionEngine.builder()
+            .deduplicationWindow(500)
+            .scoringWindow(ScoringWindow.lastTransactions(10))
+            .build();
+        HistoricalRescorer rescorer = HistoricalRescorer.builder()
+            .deduplicationWindow(500)
+            .scoringWindow(ScoringWindow.lastTransactions(10))
+            .pool(new ForkJoinPool(3))
+            .blockSize(4_096)
+            .build();
+
+        assertArrayEquals(replay(transactionEngine, history), rescore(rescorer, history));
+    }
+
+    @Test
+    @DisplayName("should rescore with changed threshold like sequential replay")
+    void shouldRescoreWithChangedThresholdLikeSequentialReplay() {
+        TransactionHistory history = new ColumnarTransactionHistory();
+        for (var i = 0; i < 1_000; i++) {
+            history.add(i + 1, i % 10, i % 2 == 0 ? 500 + 100 * i : 100, false);
+        }
+        TransactionEngine transactionEngine = new TransactionEngine();
+        transactionEngine.THRESHOLD = 200;
+
+        int[] fraudScores = rescore(HistoricalRescorer.builder().threshold(200).build(), history);
+        assertArrayEquals(replay(transactionEngine, history), fraudScores);
+        assertEquals(200, fraudScores[3]);
+    }
+
+    @Test
+    @DisplayName("should reject time window because history holds no timestamps")
+    void shouldRejectTimeWindow() {
+        assertThrows(IllegalArgumentException.class, () -> HistoricalRescorer.builder()
+            .scoringWindow(ScoringWindow.lastDuration(Duration.ofMinutes(1), 100))
+            .build());
+    }
+}
@@ -0,0 +1,72 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class LatencyHistogramTest {
+
+    @ParameterizedTest
+    @ValueSource(longs = { 0, 1, 31, 32, 33, 1_000, 123_456_789, Long.MAX_VALUE })
+    @DisplayName("should put value in bucket whose upper bound is within precision")
+    void shouldPutValueInBucketWhoseUpperBoundIsWithinPrecision(long value) {
+        var highestValue = LatencyHistogram.highestValueOf(LatencyHistogram.indexOf(value));
+        assertTrue(highestValue >= value);
+        assertTrue(highestValue - value <= value / 32);
+    }
+
+    @Test
+    @DisplayName("should report percentiles, mean and max of recorded values")
+    void shouldReportPercentilesMeanAndMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (var value = 1; value <= 1_000; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(1_000, histogram.getCount());
+        assertEquals(1_000, histogram.getMax());
+        assertEquals(500.5, histogram.getMean());
+        assertEquals(500, histogram.getValueAtPercentile(50), 500 / 32);
+        assertEquals(990, histogram.getValueAtPercentile(99), 990 / 32);
+        assertEquals(1_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    @DisplayName("should report zero when nothing is recorded")
+    void shouldReportZeroWhenNothingIsRecorded() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(10);
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        assertEquals(0, histogram.getMean());
+    }
+
+    @Test
+    @DisplayName("should not allocate when recording")
+    void shouldNotAllocateWhenRecording() {
+        var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        RecordingEngineMetrics metrics = new RecordingEngineMetrics();
+        for (var i = 0; i < 100_000; i++) {
+            metrics.recordDeduplication(i, false);
+        }
+
+        var allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+        for (var i = 0; i < 100_000; i++) {
+            metrics.recordDeduplication(i, i % 2 == 0);
+            metrics.recordAggregateLookup(i, false);
+            metrics.recordPatternCheck(i, true);
+            metrics.recordIngested(i);
+        }
+        var allocated = threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        assertTrue(allocated < 1_024, "allocated " + allocated + " bytes");
+    }
+}
@@ -0,0 +1,74 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class LongIntHashMapTest {
+
+    @ParameterizedTest
+    @ValueSource(longs = { 0L, 1L, -1L, Long.MIN_VALUE, Long.MAX_VALUE })
+    @DisplayName("should drop key when its count falls to zero")
+    void shouldDropKeyWhenItsCountFallsToZero(long key) {
+        LongIntHashMap counts = new LongIntHashMap();
+
+        assertEquals(1, counts.addTo(key, 1));
+        assertEquals(2, counts.addTo(key, 1));
+        assertEquals(1, counts.addTo(key, -1));
+        assertTrue(counts.containsKey(key));
+        assertEquals(0, counts.addTo(key, -1));
+        assertFalse(counts.containsKey(key));
+        assertEquals(-1, counts.get(key, -1));
+        assertEquals(0, counts.size());
+    }
+
+    @Test
+    @DisplayName("should behave like a hash map under random puts, increments and removes")
+    void shouldBehaveLikeHashMapUnderRandomOperations() {
+        LongIntHashMap map = new LongIntHashMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (var i = 0; i < 100_000; i++) {
+            long key = random.nextInt(5_000);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    map.put(key, i + 1);
+                    expected.put(key, i + 1);
+                }
+                case 1 -> assertEquals((int) expected.merge(key, 1, Integer::sum), map.addTo(key, 1));
+                default -> assertEquals(expected.remove(key) != null, map.remove(key));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 5_000; key++) {
+            assertEquals((int) expected.getOrDefault(key, -1), map.get(key, -1));
+        }
+    }
+
+    @Test
+    @DisplayName("should track membership without storing values")
+    void shouldTrackMembershipWithoutStoringValues() {
+        LongIntHashMap keys = new LongIntHashMap(false);
+        LongIntHashMap values = new LongIntHashMap();
+        for (long key = 0; key < 100; key++) {
+            assertTrue(keys.add(key));
+            values.put(key, 1);
+        }
+
+        assertFalse(keys.add(42));
+        assertTrue(keys.remove(0));
+        assertEquals(99, keys.toKeyArray().length);
+        assertTrue(keys.estimateMemoryBytes() < values.estimateMemoryBytes());
+    }
+}
@@ -0,0 +1,121 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class PatternDetectorTest {
+
+    private static Transaction createTransaction(long transactionId, int amount) {
+        return Transaction.builder()
+            .transactionId(transactionId)
+            .accountId(1)
+            .amount(amount)
+            .build();
+    }
+
+    private static int nextAmount(Random random, int threshold, int lastAmount, int step) {
+        return switch (random.nextInt(4)) {
+            case 0 -> threshold - random.nextInt(100);
+            case 1 -> lastAmount + step;
+            case 2 -> lastAmount;
+            default -> threshold + random.nextInt(50);
+        };
+    }
+
+    @Test
+    @DisplayName("should return zero when nothing is added")
+    void shouldReturnZeroWhenNothingIsAdded() {
+        assertEquals(0, new PatternDetector(1_000).getPattern());
+    }
+
+    @Test
+    @DisplayName("should keep the established diff until a transaction breaks it")
+    void shouldKeepEstablishedDiffUntilTransactionBreaksIt() {
+        PatternDetector patternDetector = new PatternDetector(10_000);
+        patternDetector.advance(1, 10_000);
+        patternDetector.advance(2, 12_500);
+        assertEquals(2_500, patternDetector.getPattern());
+
+        patternDetector.advance(3, 15_000);
+        patternDetector.advance(4, 5_000);
+        assertEquals(2_500, patternDetector.getPattern());
+
+        patternDetector.advance(5, 20_000);
+        assertEquals(0, patternDetector.getPattern());
+
+        patternDetector.advance(6, 15_000);
+        assertEquals(0, patternDetector.getPattern());
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = { 1, 7, 42, 1_000, 65_536 })
+    @DisplayName("should match batch scan of history after every transaction")
+    void shouldMatchBatchScanAfterEveryTransaction(long seed) {
+        Random random = new Random(seed);
+
+        for (var run = 0; run < 200; run++) {
+            var threshold = random.nextInt(2_000);
+            var step = random.nextInt(3) * 10;
+            var lastAmount = threshold;
+            ArrayList<Transaction> transactionHistory = new ArrayList<>();
+            TransactionEngine transactionEngine = new TransactionEngine(transactionHistory);
+            PatternDetector patternDetector = new PatternDetector(threshold);
+
+            for (var i = 0; i < 50; i++) {
+                long transactionId = random.nextInt(40);
+                var amount = nextAmount(random, threshold, lastAmount, step);
+                lastAmount = amount;
+
+                transactionHistory.add(createTransaction(transactionId, amount));
+                patternDetector.advance(transactionId, amount);
+
+                assertEquals(transactionEngine.scanTransactionPatternAboveThreshold(threshold),
+                    patternDetector.getPattern());
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = { 3, 11, 2024 })
+    @DisplayName("should give the same fraud scores as an engine using batch scan")
+    void shouldGiveSameFraudScoresAsEngineUsingBatchScan(long seed) {
+        Random random = new Random(seed);
+        TransactionEngine transactionEngine = new TransactionEngine();
+        List<Transaction> transactions = new ArrayList<>();
+        var lastAmount = transactionEngine.THRESHOLD;
+
+        for (var i = 0; i < 2_000; i++) {
+            var amount = nextAmount(random, transactionEngine.THRESHOLD, lastAmount, 25);
+            lastAmount = amount;
+            transactions.add(Transaction.builder()
+                .transactionId(random.nextInt(1_500))
+                .accountId(random.nextInt(5))
+                .amount(amount)
+                .isDebit(random.nextBoolean())
+                .build());
+        }
+
+        ArrayList<Transaction> scannedHistory = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            var expectedFraudScore = 0;
+            if (!scannedHistory.contains(transaction)) {
+                TransactionEngine scanningEngine = new TransactionEngine(new ArrayList<>(scannedHistory));
+                expectedFraudScore = scanningEngine.detectFraudulentTransaction(transaction);
+                if (expectedFraudScore == 0) {
+                    expectedFraudScore = scanningEngine.scanTransactionPatternAboveThreshold(scanningEngine.THRESHOLD);
+                }
+                scannedHistory.add(transaction);
+            }
+
+            assertEquals(expectedFraudScore, transactionEngine.addTransactionAndDetectFraud(transaction));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class ScalableBloomFilterTest {
+
+    @TempDir
+    Path directory;
+
+    private static double falsePositiveRate(ScalableBloomFilter filter, long from, int probes) {
+        var falsePositives = 0;
+        for (var i = 0; i < probes; i++) {
+            if (filter.mightContain(from + i)) {
+                falsePositives++;
+            }
+        }
+        return (double) falsePositives / probes;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1_000, 10_000, 50_000 })
+    @DisplayName("should contain every added id and stay within false positive rate as it grows")
+    void shouldContainEveryAddedIdAndStayWithinFalsePositiveRate(int insertions) throws IOException {
+        try (ScalableBloomFilter filter = ScalableBloomFilter.open(directory, 5_000, 0.01)) {
+            for (var i = 0; i < insertions; i++) {
+                filter.put(i * 31L);
+            }
+
+            for (var i = 0; i < insertions; i++) {
+                assertTrue(filter.mightContain(i * 31L));
+            }
+            assertTrue(falsePositiveRate(filter, Long.MIN_VALUE, 100_000) < 0.01);
+            assertTrue(filter.size() <= insertions);
+            assertEquals(insertions > 5_000, filter.getStageCount() > 1);
+        }
+    }
+
+    @Test
+    @DisplayName("should keep ids across reopen")
+    void shouldKeepIdsAcrossReopen() throws IOException {
+        try (ScalableBloomFilter filter = ScalableBloomFilter.open(directory, 100, 0.001)) {
+            for (var i = 1; i <= 1_000; i++) {
+                filter.put(i);
+            }
+        }
+
+        try (ScalableBloomFilter filter = ScalableBloomFilter.open(directory, 100, 0.001)) {
+            assertTrue(filter.getStageCount() > 1);
+            for (var i = 1; i <= 1_000; i++) {
+                assertTrue(filter.mightContain(i));
+            }
+            assertFalse(filter.put(1));
+        }
+    }
+
+    @Test
+    @DisplayName("should reject reopening with different sizing")
+    void shouldRejectReopeningWithDifferentSizing() throws IOException {
+        ScalableBloomFilter.open(directory, 100, 0.001).close();
+        assertThrows(IllegalStateException.class, () -> ScalableBloomFilter.open(directory, 1_000, 0.001));
+    }
+
+    @Test
+    @DisplayName("should size bit array by expected insertions and false positive rate")
+    void shouldSizeBitArrayByExpectedInsertionsAndFalsePositiveRate() {
+        var bitCount = ScalableBloomFilter.bitCountOf(1_000_000, 0.01);
+        assertEquals(9_585_088, bitCount);
+        assertEquals(7, ScalableBloomFilter.hashCountOf(1_000_000, bitCount));
+        assertThrows(IllegalArgumentException.class, () -> ScalableBloomFilter.open(directory, 100, 1.5));
+    }
+}
@@ -0,0 +1,141 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ShardedTransactionEngineTest {
+
+    private ShardedTransactionEngine shardedEngine;
+
+    @BeforeEach
+    void setUp() { shardedEngine = new ShardedTransactionEngine(4); }
+
+    @AfterEach
+    void tearDown() { shardedEngine.close(); }
+
+    private static List<Transaction> createTransactions(int count, long firstTransactionId, long seed) {
+        Random random = new Random(seed);
+        List<Transaction> transactions = new ArrayList<>();
+        for (var i = 0; i < count; i++) {
+            transactions.add(Transaction.builder()
+                .transactionId(firstTransactionId + i)
+                .accountId(random.nextInt(100))
+                .amount(1 + random.nextInt(1_000))
+                .isDebit(random.nextBoolean())
+                .build());
+        }
+        return transactions;
+    }
+
+    private static int[] score(ShardedTransactionEngine shardedEngine, List<Transaction> transactions) {
+        List<CompletableFuture<Integer>> fraudScores = transactions.stream()
+            .map(shardedEngine::addTransactionAndDetectFraud)
+            .toList();
+        return fraudScores.stream().mapToInt(CompletableFuture::join).toArray();
+    }
+
+    @Test
+    @DisplayName("should score each account like the single engine")
+    void shouldScoreEachAccountLikeSingleEngine() {
+        List<Transaction> transactions = createTransactions(10_000, 0, 1);
+        TransactionEngine singleEngine = new TransactionEngine();
+
+        assertArrayEquals(transactions.stream().mapToInt(singleEngine::addTransactionAndDetectFraud).toArray(),
+            score(shardedEngine, transactions));
+        assertEquals(10_000, shardedEngine.getTransactionCount());
+        for (var accountId = 0; accountId < 100; accountId++) {
+            assertEquals(singleEngine.getAverageTransactionAmountByAccount(accountId),
+                shardedEngine.getAverageTransactionAmountByAccount(accountId).join());
+        }
+    }
+
+    @Test
+    @DisplayName("should keep account aggregates and scoring when rebalanced")
+    void shouldKeepAccountAggregatesAndScoringWhenRebalanced() {
+        List<Transaction> before = createTransactions(5_000, 0, 2);
+        List<Transaction> after = createTransactions(5_000, 5_000, 3);
+        TransactionEngine singleEngine = new TransactionEngine();
+        before.forEach(singleEngine::addTransactionAndDetectFraud);
+
+        score(shardedEngine, before);
+        shardedEngine.rebalance(7);
+
+        assertEquals(7, shardedEngine.getShardCount());
+        assertEquals(5_000, shardedEngine.getTransactionCount());
+        assertArrayEquals(after.stream().mapToInt(singleEngine::addTransactionAndDetectFraud).toArray(),
+            score(shardedEngine, after));
+    }
+
+    @Test
+    @DisplayName("should not lose transactions submitted while rebalancing")
+    void shouldNotLoseTransactionsSubmittedWhileRebalancing() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<int[]>> submissions = new ArrayList<>();
+            for (var thread = 0; thread < 4; thread++) {
+                List<Transaction> transactions = createTransactions(5_000, thread * 1_000_000L, thread);
+                submissions.add(executor.submit(() -> score(shardedEngine, transactions)));
+            }
+            for (var shardCount = 1; shardCount <= 8; shardCount++) {
+                shardedEngine.rebalance(shardCount);
+            }
+            for (Future<int[]> submission : submissions) {
+                submission.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(20_000, shardedEngine.getTransactionCount());
+    }
+
+    @Test
+    @DisplayName("should reject work once closed")
+    void shouldRejectWorkOnceClosed() {
+        shardedEngine.close();
+        assertThrows(IllegalStateException.class,
+            () -> shardedEngine.addTransactionAndDetectFraud(createTransactions(1, 0, 0).getFirst()));
+        assertThrows(IllegalStateException.class, () -> shardedEngine.rebalance(2));
+    }
+
+    @Test
+    @DisplayName("should not accept non positive shard count")
+    void shouldNotAcceptNonPositiveShardCount() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardedTransactionEngine(0));
+        assertThrows(IllegalArgumentException.class, () -> shardedEngine.rebalance(0));
+    }
+
+    @Test
+    @DisplayName("should count every rule check when shards share one metrics instance")
+    void shouldCountEveryRuleCheckWhenShardsShareOneMetricsInstance() {
+        FraudRule custom = (context, transactionId, accountId, amount, isDebit, timestamp) -> 0;
+        FraudRulePipeline pipeline = FraudRuleRegistry.withBuiltInRules().register(custom).compile();
+        RecordingEngineMetrics metrics = new RecordingEngineMetrics();
+        List<Transaction> transactions = createTransactions(10_000, 0, 4);
+
+        try (ShardedTransactionEngine meteredEngine = new ShardedTransactionEngine(4, history ->
+                TransactionEngine.builder().transactionHistory(history).fraudRules(pipeline).metrics(metrics).build())) {
+            score(meteredEngine, transactions);
+        }
+
+        assertEquals(10_000, metrics.getTransactionsIngested());
+        assertEquals(10_000, metrics.getDeduplicationLatency().getCount());
+        assertEquals(10_000, metrics.getRuleLatency(custom).getCount());
+        assertEquals(10_000, metrics.getAggregateLookupLatency().getCount());
+        assertEquals(10_000 - metrics.getExcessiveDebits(), metrics.getPatternCheckLatency().getCount());
+    }
+}
@@ -1,12 +1,23 @@
 package domain;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import util.TransactionFaker;
@@ -14,9 +25,16 @@ import util.TransactionFaker;
 public class TransactionEngineTest {
 
     private TransactionEngine createTransactionEngine(ArrayList<Transaction> transactionHistory) {
-        TransactionEngine transactionEngine = new TransactionEngine();
-        transactionEngine.transactionHistory = transactionHistory;
-        return transactionEngine;
+        return new TransactionEngine(transactionHistory);
+    }
+
+    private static Transaction createTransaction(long transactionId, int accountId, int amount, boolean isDebit) {
+        return Transaction.builder()
+            .transactionId(transactionId)
+            .accountId(accountId)
+            .amount(amount)
+            .isDebit(isDebit)
+            .build();
     }
 
     static Object[][] transactionAverageAmountProvider() {
@@ -119,4 +137,372 @@ public class TransactionEngineTest {
         assertEquals(expectedFraudScore, transactionEngine.addTransactionAndDetectFraud(transaction));
     }
 
+    @Test
+    @DisplayName("should update account average when transaction is added")
+    void shouldUpdateAccountAverageWhenTransactionIsAdded() {
+        TransactionEngine transactionEngine = new TransactionEngine();
+        transactionEngine.addTransactionAndDetectFraud(createTransaction(1, 1, 10_000, false));
+        transactionEngine.addTransactionAndDetectFraud(createTransaction(2, 2, 40_000, false));
+        transactionEngine.addTransactionAndDetectFraud(createTransaction(3, 1, 20_000, false));
+
+        assertEquals(15_000, transactionEngine.getAverageTransactionAmountByAccount(1));
+        assertEquals(40_000, transactionEngine.getAverageTransactionAmountByAccount(2));
+    }
+
+    @Test
+    @DisplayName("should accept transaction id again once it leaves deduplication window")
+    void shouldAcceptTransactionIdAgainOnceItLeavesDeduplicationWindow() {
+        TransactionEngine transactionEngine = new TransactionEngine(2);
+        Transaction transaction = createTransaction(1, 1, 500, false);
+        transactionEngine.addTransactionAndDetectFraud(transaction);
+        transactionEngine.addTransactionAndDetectFraud(createTransaction(2, 1, 500, false));
+
+        transactionEngine.addTransactionAndDetectFraud(transaction);
+        assertEquals(2, transactionEngine.transactionHistory.size());
+
+        transactionEngine.addTransactionAndDetectFraud(createTransaction(3, 1, 500, false));
+        transactionEngine.addTransactionAndDetectFraud(transaction);
+        assertEquals(4, transactionEngine.transactionHistory.size());
+    }
+
+    static List<Transaction> transactionBatch() {
+        Transaction repeatedTransaction = TransactionFaker.createTransaction(2, 3_000, true);
+        return List.of(
+            TransactionFaker.createTransaction(1, 1_000, false),
+            TransactionFaker.createTransaction(1, 2_000, false),
+            repeatedTransaction,
+            TransactionFaker.createTransaction(1, 3_000, false),
+            repeatedTransaction,
+            TransactionFaker.createTransaction(1, 9_000, true),
+            TransactionFaker.createTransaction(2, 4_000, true)
+        );
+    }
+
+    @Test
+    @DisplayName("should score batch of transactions like one at a time ingestion")
+    void shouldScoreBatchLikeOneAtATimeIngestion() {
+        List<Transaction> transactions = transactionBatch();
+        TransactionEngine sequentialEngine = new TransactionEngine();
+        int[] expectedFraudScores = transactions.stream()
+            .mapToInt(sequentialEngine::addTransactionAndDetectFraud)
+            .toArray();
+
+        TransactionEngine transactionEngine = new TransactionEngine();
+        assertArrayEquals(expectedFraudScores, transactionEngine.addTransactionsAndDetectFraud(transactions));
+        assertEquals(sequentialEngine.transactionHistory.size(), transactionEngine.transactionHistory.size());
+    }
+
+    @Test
+    @DisplayName("should score columnar batch of transactions like one at a time ingestion")
+    void shouldScoreColumnarBatchLikeOneAtATimeIngestion() {
+        List<Transaction> transactions = transactionBatch();
+        TransactionEngine sequentialEngine = new TransactionEngine();
+        int[] expectedFraudScores = transactions.stream()
+            .mapToInt(sequentialEngine::addTransactionAndDetectFraud)
+            .toArray();
+
+        var count = transactions.size();
+        long[] transactionIds = new long[count];
+        int[] accountIds = new int[count];
+        int[] amounts = new int[count];
+        boolean[] debits = new boolean[count];
+        for (var i = 0; i < count; i++) {
+            transactionIds[i] = transactions.get(i).getTransactionId();
+            accountIds[i] = transactions.get(i).getAccountId();
+            amounts[i] = transactions.get(i).getAmount();
+            debits[i] = transactions.get(i).isDebit();
+        }
+
+        TransactionEngine transactionEngine = new TransactionEngine();
+        assertArrayEquals(expectedFraudScores,
+            transactionEngine.addTransactionsAndDetectFraud(transactionIds, accountIds, amounts, debits));
+        assertEquals(sequentialEngine.transactionHistory.size(), transactionEngine.transactionHistory.size());
+    }
+
+    private static class RepeatedAmountRule implements FraudRule {
+        private int lastAmount;
+
+        @Override
+        public int score(FraudContext context, long transactionId, int accountId, int amount, boolean isDebit,
+            long timestamp) {
+            return context.getTransactionCount(accountId) > 2 && amount == lastAmount ? 1 : 0;
+        }
+
+        @Override
+        public int getOrder() {
+            return 300;
+        }
+
+        @Override
+        public void onTransactionAccepted(long transactionId, int accountId, int amount, boolean isDebit,
+            long timestamp) {
+            lastAmount = amount;
+        }
+    }
+
+    private static TransactionEngine createBatchTestEngine(int deduplicationWindow, Path filterDirectory)
+        throws IOException {
+        return TransactionEngine.builder()
+            .deduplicationWindow(deduplicationWindow)
+            .duplicateFilter(filterDirectory == null ? null : ScalableBloomFilter.open(filterDirectory, 1_000, 0.01))
+            .fraudRules(FraudRuleRegistry.withBuiltInRules().register(new RepeatedAmountRule()).compile())
+            .metrics(new RecordingEngineMetrics())
+            .build();
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "0, false", "8, false", "8, true" })
+    @DisplayName("should score random batches like one at a time ingestion")
+    void shouldScoreRandomBatchesLikeOneAtATimeIngestion(int deduplicationWindow, boolean filtered,
+        @TempDir Path directory) throws IOException {
+        TransactionEngine sequentialEngine = createBatchTestEngine(deduplicationWindow,
+            filtered ? directory.resolve("sequential") : null);
+        TransactionEngine batchEngine = createBatchTestEngine(deduplicationWindow,
+            filtered ? directory.resolve("batch") : null);
+        Random random = new Random(7);
+        List<Transaction> transactions = new ArrayList<>();
+        for (var i = 0; i < 20; i++) {
+            transactions.add(createTransaction(10_000 + i, i % 3, 500 + 100 * i, false));
+        }
+        for (var i = 0; i < 5_000; i++) {
+            transactions.add(createTransaction(random.nextInt(3_000), random.nextInt(10),
+                1 + random.nextInt(4) * 700, random.nextInt(3) == 0));
+        }
+
+        for (var from = 0; from < transactions.size(); ) {
+            var to = Math.min(transactions.size(), from + 1 + random.nextInt(200));
+            List<Transaction> batch = transactions.subList(from, to);
+            assertArrayEquals(batch.stream().mapToInt(sequentialEngine::addTransactionAndDetectFraud).toArray(),
+                batchEngine.addTransactionsAndDetectFraud(batch), "batch starting at " + from);
+            from = to;
+        }
+
+        assertEquals(sequentialEngine.getHistorySize(), batchEngine.getHistorySize());
+        assertEquals(sequentialEngine.getTransactionPatternAboveThreshold(1_000),
+            batchEngine.getTransactionPatternAboveThreshold(1_000));
+        for (var accountId = 0; accountId < 10; accountId++) {
+            assertEquals(sequentialEngine.getAverageTransactionAmountByAccount(accountId),
+                batchEngine.getAverageTransactionAmountByAccount(accountId));
+            assertEquals(sequentialEngine.accountAggregates.getVariance(accountId),
+                batchEngine.accountAggregates.getVariance(accountId), 1e-6);
+        }
+        RecordingEngineMetrics sequentialMetrics = (RecordingEngineMetrics) sequentialEngine.metrics;
+        RecordingEngineMetrics batchMetrics = (RecordingEngineMetrics) batchEngine.metrics;
+        assertEquals(sequentialMetrics.getDuplicatesRejected(), batchMetrics.getDuplicatesRejected());
+        assertEquals(sequentialMetrics.getTransactionsIngested(), batchMetrics.getTransactionsIngested());
+        if (sequentialEngine.duplicateFilter != null) {
+            sequentialEngine.duplicateFilter.close();
+            batchEngine.duplicateFilter.close();
+        }
+    }
+
+    @Test
+    @DisplayName("should score the pattern of a batch like one at a time ingestion")
+    void shouldScorePatternOfBatchLikeOneAtATimeIngestion() {
+        List<Transaction> transactions = new ArrayList<>();
+        for (var i = 0; i < 10; i++) {
+            transactions.add(createTransaction(i + 1, 1, 500 + 600 * i, false));
+        }
+        TransactionEngine sequentialEngine = new TransactionEngine();
+        int[] expectedFraudScores = transactions.stream()
+            .mapToInt(sequentialEngine::addTransactionAndDetectFraud)
+            .toArray();
+
+        TransactionEngine transactionEngine = new TransactionEngine();
+        assertArrayEquals(expectedFraudScores, transactionEngine.addTransactionsAndDetectFraud(transactions));
+        assertTrue(Arrays.stream(expectedFraudScores).anyMatch(fraudScore -> fraudScore == 600));
+    }
+
+    @Test
+    @DisplayName("should reject columnar batch with columns of different length")
+    void shouldRejectColumnarBatchWithColumnsOfDifferentLength() {
+        TransactionEngine transactionEngine = new TransactionEngine();
+        assertThrows(IllegalArgumentException.class, () -> transactionEngine.addTransactionsAndDetectFraud(
+            new long[] { 1, 2 }, new int[] { 1, 1 }, new int[] { 100 }, new boolean[] { true, false }));
+    }
+
+    @Test
+    @DisplayName("should score debit against the average of the account's last transactions")
+    void shouldScoreDebitAgainstAverageOfLastTransactions() {
+        TransactionEngine transactionEngine = TransactionEngine.builder()
+            .scoringWindow(ScoringWindow.lastTransactions(2))
+            .build();
+        transactionEngine.addTransactionAndDetectFraud(TransactionFaker.createTransaction(1, 100_000, false));
+        transactionEngine.addTransactionAndDetectFraud(TransactionFaker.createTransaction(1, 500, false));
+        transactionEngine.addTransactionAndDetectFraud(TransactionFaker.createTransaction(1, 500, false));
+
+        assertEquals(500, transactionEngine.getAverageTransactionAmountByAccount(1));
+        assertEquals(2_000, transactionEngine.addTransactionAndDetectFraud(
+            TransactionFaker.createTransaction(1, 3_000, true)));
+    }
+
+    @Test
+    @DisplayName("should score debit against the average of the account's recent transactions")
+    void shouldScoreDebitAgainstAverageOfRecentTransactions() {
+        TransactionEngine transactionEngine = TransactionEngine.builder()
+            .scoringWindow(ScoringWindow.lastDuration(Duration.ofMinutes(1), 1_000))
+            .build();
+        Transaction oldTransaction = TransactionFaker.createTransaction(1, 100_000, false);
+        oldTransaction.setTimestamp(1_000);
+        Transaction recentTransaction = TransactionFaker.createTransaction(1, 500, false);
+        recentTransaction.setTimestamp(50_000);
+        Transaction debit = TransactionFaker.createTransaction(1, 3_000, true);
+        debit.setTimestamp(70_000);
+
+        transactionEngine.addTransactionAndDetectFraud(oldTransaction);
+        transactionEngine.addTransactionAndDetectFraud(recentTransaction);
+        assertEquals(2_000, transactionEngine.addTransactionAndDetectFraud(debit));
+    }
+
+    @Test
+    @DisplayName("should require timestamps when scoring over a time window")
+    void shouldRequireTimestampsWhenScoringOverTimeWindow() {
+        TransactionEngine transactionEngine = TransactionEngine.builder()
+            .scoringWindow(ScoringWindow.lastDuration(Duration.ofMinutes(1), 1_000))
+            .build();
+        assertThrows(IllegalArgumentException.class,
+            () -> transactionEngine.addTransactionAndDetectFraud(TransactionFaker.createTransaction(1, 500)));
+    }
+
+    @Test
+    @DisplayName("should count ingested, duplicate, excessive debit and pattern transactions")
+    void shouldCountIngestedDuplicateExcessiveDebitAndPatternTransactions() {
+        RecordingEngineMetrics metrics = new RecordingEngineMetrics();
+        TransactionEngine transactionEngine = TransactionEngine.builder().metrics(metrics).build();
+        Transaction transaction = TransactionFaker.createTransaction(1, 1_000, false);
+
+        transactionEngine.addTransactionAndDetectFraud(transaction);
+        transactionEngine.addTransactionAndDetectFraud(transaction);
+        transactionEngine.addTransactionAndDetectFraud(TransactionFaker.createTransaction(1, 2_000, false));
+        transactionEngine.addTransactionAndDetectFraud(TransactionFaker.createTransaction(1, 3_000, false));
+        transactionEngine.addTransactionAndDetectFraud(TransactionFaker.createTransaction(1, 9_000, true));
+
+        assertEquals(4, metrics.getTransactionsIngested());
+        assertEquals(1, metrics.getDuplicatesRejected());
+        assertEquals(1, metrics.getExcessiveDebits());
+        assertEquals(1, metrics.getPatternHits());
+        assertEquals(4, metrics.getHistorySize());
+        assertEquals(5, metrics.getDeduplicationLatency().getCount());
+        assertEquals(4, metrics.getAggregateLookupLatency().getCount());
+        assertEquals(3, metrics.getPatternCheckLatency().getCount());
+        assertTrue(transactionEngine.estimateMemoryBytes() > 0);
+    }
+
+    @Test
+    @DisplayName("should score excessive debit of busy account without overflow")
+    void shouldScoreExcessiveDebitOfBusyAccountWithoutOverflow() {
+        TransactionEngine transactionEngine = new TransactionEngine();
+        for (var i = 1; i <= 10; i++) {
+            transactionEngine.addTransactionAndDetectFraud(i, 1, 1_500_000_000, false);
+        }
+
+        assertEquals(1_500_000_000, transactionEngine.getAverageTransactionAmountByAccount(1));
+        assertEquals(0, transactionEngine.addTransactionAndDetectFraud(11, 1, Integer.MAX_VALUE, true));
+        assertEquals(Integer.MAX_VALUE, TransactionEngine.excessiveDebitScore(Integer.MIN_VALUE, 1, true));
+    }
+
+    @Test
+    @DisplayName("should return rounded fixed point average of account amounts")
+    void shouldReturnRoundedFixedPointAverageOfAccountAmounts() {
+        TransactionEngine transactionEngine = new TransactionEngine();
+        transactionEngine.addTransactionAndDetectFraud(1, 1, FixedPointAmount.parse("10.00"), false);
+        transactionEngine.addTransactionAndDetectFraud(2, 1, FixedPointAmount.parse("0.05"), false);
+        transactionEngine.addTransactionAndDetectFraud(3, 1, FixedPointAmount.parse("0.02"), false);
+
+        assertEquals(FixedPointAmount.parse("3.36"), transactionEngine.getExactAverageTransactionAmountByAccount(1));
+        assertEquals(335, transactionEngine.getAverageTransactionAmountByAccount(1));
+        assertEquals(FixedPointAmount.ZERO, transactionEngine.getExactAverageTransactionAmountByAccount(2));
+    }
+
+    @Test
+    @DisplayName("should reject duplicate seen before restart once the window confirms the filter hit")
+    void shouldRejectDuplicateSeenBeforeRestartThroughDuplicateFilter(@TempDir Path directory) throws IOException {
+        ColumnarTransactionHistory history = new ColumnarTransactionHistory();
+        try (ScalableBloomFilter filter = ScalableBloomFilter.open(directory, 1_000, 0.001)) {
+            TransactionEngine transactionEngine = TransactionEngine.builder()
+                .transactionHistory(history)
+                .duplicateFilter(filter)
+                .build();
+            for (var i = 1; i <= 100; i++) {
+                transactionEngine.addTransactionAndDetectFraud(i, 1, 1_000, false);
+            }
+            assertEquals(0, transactionEngine.addTransactionAndDetectFraud(50, 1, 9_000, true));
+            assertEquals(100, transactionEngine.getHistorySize());
+        }
+
+        try (ScalableBloomFilter filter = ScalableBloomFilter.open(directory, 1_000, 0.001)) {
+            TransactionEngine transactionEngine = TransactionEngine.builder()
+                .transactionHistory(history)
+                .duplicateFilter(filter)
+                .build();
+            assertEquals(0, transactionEngine.addTransactionAndDetectFraud(50, 1, 9_000, true));
+            assertEquals(0, transactionEngine.addTransactionAndDetectFraud(101, 1, 1_000, false));
+            assertEquals(101, transactionEngine.getHistorySize());
+        }
+    }
+
+    @Test
+    @DisplayName("should reject a duplicate that left the in-memory window once history confirms the filter hit")
+    void shouldRejectDuplicateOutsideWindowConfirmedByHistory(@TempDir Path directory) throws IOException {
+        try (ScalableBloomFilter filter = ScalableBloomFilter.open(directory, 1_000, 0.001)) {
+            TransactionEngine transactionEngine = TransactionEngine.builder()
+                .duplicateFilter(filter)
+                .deduplicationWindow(16)
+                .build();
+            for (var i = 1; i <= 100; i++) {
+                transactionEngine.addTransactionAndDetectFraud(i, 1, 1_000, false);
+            }
+
+            assertEquals(0, transactionEngine.addTransactionAndDetectFraud(5, 1, 9_000, true));
+            assertEquals(100, transactionEngine.getHistorySize());
+        }
+    }
+
+    @Test
+    @DisplayName("should reject a duplicate that retention evicted once the journal confirms the filter hit")
+    void shouldRejectEvictedDuplicateConfirmedByJournal(@TempDir Path directory) throws IOException {
+        try (ScalableBloomFilter filter = ScalableBloomFilter.open(directory.resolve("filter"), 1_000, 0.001);
+            TransactionJournal journal = TransactionJournal.open(directory.resolve("transactions.journal"))) {
+            TransactionEngine transactionEngine = TransactionEngine.builder()
+                .duplicateFilter(filter)
+                .journal(journal)
+                .deduplicationWindow(16)
+                .retentionPolicy(RetentionPolicy.maxRecords(10))
+                .build();
+            for (var i = 1; i <= 100; i++) {
+                transactionEngine.addTransactionAndDetectFraud(i, 1, 1_000, false);
+            }
+
+            assertEquals(0, transactionEngine.addTransactionAndDetectFraud(5, 1, 9_000, true));
+            assertEquals(100, journal.size());
+            assertEquals(0, transactionEngine.addTransactionAndDetectFraud(101, 1, 1_000, false));
+            assertEquals(101, journal.size());
+        }
+    }
+
+    @Test
+    @DisplayName("should accept a transaction whose duplicate filter hit neither the window nor history confirms")
+    void shouldAcceptUnconfirmedDuplicateFilterHit(@TempDir Path directory) throws IOException {
+        try (ScalableBloomFilter filter = ScalableBloomFilter.open(directory, 64, 0.5)) {
+            RecordingEngineMetrics metrics = new RecordingEngineMetrics();
+            TransactionEngine transactionEngine = TransactionEngine.builder()
+                .duplicateFilter(filter)
+                .deduplicationWindow(16)
+                .metrics(metrics)
+                .build();
+            for (var i = 1; i <= 64; i++) {
+                transactionEngine.addTransactionAndDetectFraud(i, 1, 1_000, false);
+            }
+            var collision = 1_000L;
+            while (!filter.mightContain(collision)) {
+                collision++;
+            }
+            var unconfirmedHits = metrics.getUnconfirmedFilterHits();
+
+            assertEquals(8_000, transactionEngine.addTransactionAndDetectFraud(collision, 1, 10_000, true));
+            assertEquals(65, transactionEngine.getHistorySize());
+            assertEquals(unconfirmedHits + 1, metrics.getUnconfirmedFilterHits());
+            assertEquals(0, metrics.getDuplicatesRejected());
+        }
+    }
 }
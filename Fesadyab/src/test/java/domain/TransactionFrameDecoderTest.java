@@ -0,0 +1,112 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class TransactionFrameDecoderTest {
+
+    private static ByteBuffer allocate(int frames) {
+        return ByteBuffer.allocateDirect(frames * TransactionFrame.FRAME_LENGTH).order(TransactionFrame.BYTE_ORDER);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    @DisplayName("should decode what encoder wrote")
+    void shouldDecodeWhatEncoderWrote(boolean isDebit) {
+        ByteBuffer buffer = allocate(2);
+        Transaction transaction = Transaction.builder()
+            .transactionId(Long.MIN_VALUE)
+            .accountId(-3)
+            .amount(Integer.MAX_VALUE)
+            .isDebit(isDebit)
+            .timestamp(1_700_000_000_000L)
+            .build();
+        new TransactionFrameEncoder().wrap(buffer, TransactionFrame.FRAME_LENGTH).encode(transaction);
+
+        TransactionFrameDecoder decoder = new TransactionFrameDecoder().wrap(buffer, TransactionFrame.FRAME_LENGTH);
+        assertEquals(Long.MIN_VALUE, decoder.transactionId());
+        assertEquals(-3, decoder.accountId());
+        assertEquals(Integer.MAX_VALUE, decoder.amount());
+        assertEquals(isDebit, decoder.isDebit());
+        assertEquals(1_700_000_000_000L, decoder.timestamp());
+        assertEquals(TransactionFrame.VERSION, decoder.version());
+        assertEquals(TransactionFrame.FRAME_LENGTH, decoder.encodedLength());
+        assertEquals(transaction, decoder.decode());
+    }
+
+    @Test
+    @DisplayName("should skip fields appended by newer schema version")
+    void shouldSkipFieldsAppendedByNewerSchemaVersion() {
+        var blockLength = TransactionFrame.BLOCK_LENGTH + 16;
+        ByteBuffer buffer = ByteBuffer.allocate(2 * (TransactionFrame.HEADER_LENGTH + blockLength))
+            .order(TransactionFrame.BYTE_ORDER);
+        TransactionFrameEncoder encoder = new TransactionFrameEncoder();
+        encoder.wrap(buffer, 0).transactionId(1).amount(10);
+        buffer.putShort(TransactionFrame.BLOCK_LENGTH_OFFSET, (short) blockLength);
+        buffer.putShort(TransactionFrame.VERSION_OFFSET, (short) 2);
+        encoder.wrap(buffer, TransactionFrame.HEADER_LENGTH + blockLength).transactionId(2).amount(20);
+
+        TransactionFrameDecoder decoder = new TransactionFrameDecoder().wrap(buffer, 0);
+        assertEquals(2, decoder.version());
+        assertEquals(10, decoder.amount());
+        decoder.wrap(buffer, decoder.encodedLength());
+        assertEquals(2, decoder.transactionId());
+        assertEquals(20, decoder.amount());
+    }
+
+    @Test
+    @DisplayName("should reject frame of another message or truncated block")
+    void shouldRejectFrameOfAnotherMessageOrTruncatedBlock() {
+        ByteBuffer buffer = allocate(1);
+        new TransactionFrameEncoder().wrap(buffer, 0);
+        TransactionFrameDecoder decoder = new TransactionFrameDecoder();
+
+        assertThrows(IndexOutOfBoundsException.class, () -> decoder.wrap(buffer, TransactionFrame.FRAME_LENGTH - 4));
+        buffer.putShort(TransactionFrame.BLOCK_LENGTH_OFFSET, (short) 8);
+        assertThrows(IllegalArgumentException.class, () -> decoder.wrap(buffer, 0));
+        buffer.putShort(TransactionFrame.TEMPLATE_ID_OFFSET, (short) 9);
+        assertThrows(IllegalArgumentException.class, () -> decoder.wrap(buffer, 0));
+    }
+
+    @Test
+    @DisplayName("should decode frames into engine without allocating")
+    void shouldDecodeFramesIntoEngineWithoutAllocating() {
+        var frames = 100_000;
+        ByteBuffer buffer = allocate(frames);
+        TransactionFrameEncoder encoder = new TransactionFrameEncoder();
+        for (var i = 0; i < frames; i++) {
+            encoder.wrap(buffer, i * TransactionFrame.FRAME_LENGTH)
+                .transactionId(i + 1)
+                .accountId(i % 100)
+                .amount(1_000 + i % 7)
+                .isDebit(i % 3 == 0);
+        }
+
+        var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        TransactionEngine transactionEngine = new TransactionEngine();
+        TransactionFrameDecoder decoder = new TransactionFrameDecoder();
+        var warmedUp = frames - 1_000;
+        for (var i = 0; i < warmedUp; i++) {
+            decoder.wrap(buffer, i * TransactionFrame.FRAME_LENGTH).decodeInto(transactionEngine);
+        }
+
+        var allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+        for (var i = warmedUp; i < frames; i++) {
+            decoder.wrap(buffer, i * TransactionFrame.FRAME_LENGTH).decodeInto(transactionEngine);
+        }
+        var allocated = threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        assertTrue(allocated < 1_024, "allocated " + allocated + " bytes");
+        assertEquals(frames, transactionEngine.getHistorySize());
+        assertEquals(frames, decoder.transactionId());
+    }
+}
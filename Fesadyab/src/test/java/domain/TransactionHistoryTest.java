@@ -0,0 +1,120 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+public class TransactionHistoryTest {
+
+    static Stream<Arguments> transactionHistoryProvider() {
+        return Stream.of(
+            Arguments.of(Named.of("list", (Supplier<TransactionHistory>) ListTransactionHistory::new)),
+            Arguments.of(Named.of("columnar", (Supplier<TransactionHistory>) ColumnarTransactionHistory::new)),
+            Arguments.of(Named.of("off-heap", (Supplier<TransactionHistory>) OffHeapTransactionHistory::new))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("transactionHistoryProvider")
+    @DisplayName("should return stored fields in insertion order")
+    void shouldReturnStoredFieldsInInsertionOrder(Supplier<TransactionHistory> transactionHistorySupplier) {
+        TransactionHistory transactionHistory = transactionHistorySupplier.get();
+        assertTrue(transactionHistory.isEmpty());
+
+        var count = 200_000;
+        transactionHistory.ensureCapacity(count / 2);
+        for (var i = 0; i < count; i++) {
+            transactionHistory.add(Long.MAX_VALUE - i, i % 97, -i, i % 3 == 0);
+        }
+
+        assertEquals(count, transactionHistory.size());
+        for (var i = 0; i < count; i++) {
+            assertEquals(Long.MAX_VALUE - i, transactionHistory.getTransactionId(i));
+            assertEquals(i % 97, transactionHistory.getAccountId(i));
+            assertEquals(-i, transactionHistory.getAmount(i));
+            assertEquals(i % 3 == 0, transactionHistory.isDebit(i));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("transactionHistoryProvider")
+    @DisplayName("should materialize stored transaction")
+    void shouldMaterializeStoredTransaction(Supplier<TransactionHistory> transactionHistorySupplier) {
+        TransactionHistory transactionHistory = transactionHistorySupplier.get();
+        transactionHistory.add(Transaction.builder().transactionId(7).accountId(3).amount(1_500).isDebit(true).build());
+
+        Transaction transaction = transactionHistory.get(0);
+        assertEquals(7, transaction.getTransactionId());
+        assertEquals(3, transaction.getAccountId());
+        assertEquals(1_500, transaction.getAmount());
+        assertTrue(transaction.isDebit());
+    }
+
+    @ParameterizedTest
+    @MethodSource("transactionHistoryProvider")
+    @DisplayName("should reject index outside of stored transactions")
+    void shouldRejectIndexOutsideOfStoredTransactions(Supplier<TransactionHistory> transactionHistorySupplier) {
+        TransactionHistory transactionHistory = transactionHistorySupplier.get();
+        transactionHistory.add(1, 1, 1, false);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> transactionHistory.getAmount(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> transactionHistory.getTransactionId(-1));
+    }
+
+    @ParameterizedTest
+    @MethodSource("transactionHistoryProvider")
+    @DisplayName("should give the engine the same fraud scores on every store")
+    void shouldGiveEngineSameFraudScoresOnEveryStore(Supplier<TransactionHistory> transactionHistorySupplier) {
+        TransactionEngine referenceEngine = new TransactionEngine(new ListTransactionHistory());
+        TransactionEngine transactionEngine = new TransactionEngine(transactionHistorySupplier.get());
+
+        for (var i = 0; i < 5_000; i++) {
+            Transaction transaction = Transaction.builder()
+                .transactionId(i % 4_000)
+                .accountId(i % 13)
+                .amount((i * 7_919) % 3_000)
+                .isDebit(i % 2 == 0)
+                .build();
+            assertEquals(referenceEngine.addTransactionAndDetectFraud(transaction),
+                transactionEngine.addTransactionAndDetectFraud(transaction));
+        }
+        assertEquals(referenceEngine.scanTransactionPatternAboveThreshold(500),
+            transactionEngine.scanTransactionPatternAboveThreshold(500));
+    }
+
+    @ParameterizedTest
+    @MethodSource("transactionHistoryProvider")
+    @DisplayName("should remove given indices and keep order of the rest")
+    void shouldRemoveGivenIndicesAndKeepOrderOfTheRest(Supplier<TransactionHistory> transactionHistorySupplier) {
+        TransactionHistory transactionHistory = transactionHistorySupplier.get();
+        var count = 150_000;
+        BitSet removed = new BitSet();
+        for (var i = 0; i < count; i++) {
+            transactionHistory.add(i, i % 97, i, i % 3 == 0);
+            if (i % 3 != 1) {
+                removed.set(i);
+            }
+        }
+
+        transactionHistory.removeAll(removed);
+        transactionHistory.add(count, 1, count, true);
+
+        assertEquals(count / 3 + 1, transactionHistory.size());
+        for (var i = 0; i < count / 3; i++) {
+            assertEquals(3 * i + 1, transactionHistory.getTransactionId(i));
+            assertEquals((3 * i + 1) % 97, transactionHistory.getAccountId(i));
+            assertEquals(3 * i + 1, transactionHistory.getAmount(i));
+        }
+        assertEquals(count, transactionHistory.getAmount(count / 3));
+    }
+}
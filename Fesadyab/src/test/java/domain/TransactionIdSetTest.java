@@ -0,0 +1,76 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class TransactionIdSetTest {
+
+    @ParameterizedTest
+    @ValueSource(longs = { 0L, 1L, -1L, Long.MIN_VALUE, Long.MAX_VALUE })
+    @DisplayName("should reject id that is already added")
+    void shouldRejectIdThatIsAlreadyAdded(long transactionId) {
+        TransactionIdSet transactionIds = new TransactionIdSet();
+
+        assertFalse(transactionIds.contains(transactionId));
+        assertTrue(transactionIds.add(transactionId));
+        assertTrue(transactionIds.contains(transactionId));
+        assertFalse(transactionIds.add(transactionId));
+        assertEquals(1, transactionIds.size());
+    }
+
+    @Test
+    @DisplayName("should behave like a hash set under random adds and removes")
+    void shouldBehaveLikeHashSetUnderRandomAddsAndRemoves() {
+        TransactionIdSet transactionIds = new TransactionIdSet();
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(42);
+
+        for (var i = 0; i < 100_000; i++) {
+            long transactionId = random.nextInt(5_000);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(transactionId), transactionIds.add(transactionId));
+            } else {
+                assertEquals(expected.remove(transactionId), transactionIds.remove(transactionId));
+            }
+        }
+
+        assertEquals(expected.size(), transactionIds.size());
+        for (long transactionId = 0; transactionId < 5_000; transactionId++) {
+            assertEquals(expected.contains(transactionId), transactionIds.contains(transactionId));
+        }
+    }
+
+    @Test
+    @DisplayName("should forget oldest ids when window is full")
+    void shouldForgetOldestIdsWhenWindowIsFull() {
+        TransactionIdSet transactionIds = new TransactionIdSet(3);
+        for (long transactionId = 1; transactionId <= 5; transactionId++) {
+            transactionIds.add(transactionId);
+        }
+
+        assertEquals(3, transactionIds.size());
+        assertFalse(transactionIds.contains(1));
+        assertFalse(transactionIds.contains(2));
+        assertTrue(transactionIds.contains(3));
+        assertTrue(transactionIds.contains(5));
+        assertTrue(transactionIds.add(1));
+        assertFalse(transactionIds.contains(3));
+    }
+
+    @Test
+    @DisplayName("should not accept negative window size")
+    void shouldNotAcceptNegativeWindowSize() {
+        assertThrows(IllegalArgumentException.class, () -> new TransactionIdSet(-1));
+    }
+}
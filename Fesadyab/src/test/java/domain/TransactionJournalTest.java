@@ -0,0 +1,297 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TransactionJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private static class EveryNthTransactionRule implements FraudRule {
+        private long acceptedCount;
+
+        @Override
+        public int score(FraudContext context, long transactionId, int accountId, int amount, boolean isDebit,
+            long timestamp) {
+            return acceptedCount % 7 == 6 ? 1 : 0;
+        }
+
+        @Override
+        public void onTransactionAccepted(long transactionId, int accountId, int amount, boolean isDebit,
+            long timestamp) {
+            acceptedCount++;
+        }
+
+        @Override
+        public void writeState(DataOutput output) throws IOException {
+            output.writeLong(acceptedCount);
+        }
+
+        @Override
+        public void readState(DataInput input) throws IOException {
+            acceptedCount = input.readLong();
+        }
+    }
+
+    private static TransactionEngine createEngineWithCustomRule(TransactionJournal journal) {
+        return TransactionEngine.builder()
+            .journal(journal)
+            .fraudRules(FraudRuleRegistry.withBuiltInRules().register(new EveryNthTransactionRule()).compile())
+            .build();
+    }
+
+    private static void corruptRecord(Path path, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 42 }),
+                TransactionJournal.HEADER_LENGTH + position * TransactionJournal.RECORD_LENGTH + 12);
+        }
+    }
+
+    private static List<Transaction> createTransactions(int count, long seed) {
+        Random random = new Random(seed);
+        List<Transaction> transactions = new ArrayList<>();
+        for (var i = 0; i < count; i++) {
+            transactions.add(Transaction.builder()
+                .transactionId(random.nextInt(count))
+                .accountId(random.nextInt(20))
+                .amount(random.nextInt(3_000))
+                .isDebit(random.nextBoolean())
+                .build());
+        }
+        return transactions;
+    }
+
+    @Test
+    @DisplayName("should replay appended records after reopening the journal")
+    void shouldReplayAppendedRecordsAfterReopening() throws Exception {
+        Path path = directory.resolve("transactions.journal");
+        try (TransactionJournal journal = TransactionJournal.open(path)) {
+            journal.append(0, 1, 100, false);
+            journal.append(-5, 2, -200, true);
+        }
+
+        try (TransactionJournal journal = TransactionJournal.open(path)) {
+            assertEquals(2, journal.size());
+            journal.append(7, 3, 300, true);
+
+            ColumnarTransactionHistory transactionHistory = new ColumnarTransactionHistory();
+            journal.replay(1, transactionHistory::add);
+            assertEquals(2, transactionHistory.size());
+            assertEquals(-5, transactionHistory.getTransactionId(0));
+            assertEquals(-200, transactionHistory.getAmount(0));
+            assertEquals(true, transactionHistory.isDebit(0));
+            assertEquals(3, transactionHistory.getAccountId(1));
+        }
+    }
+
+    @Test
+    @DisplayName("should reject replay range outside of the journal")
+    void shouldRejectReplayRangeOutsideOfJournal() throws Exception {
+        try (TransactionJournal journal = TransactionJournal.open(directory.resolve("transactions.journal"))) {
+            journal.append(1, 1, 100, false);
+            assertThrows(IndexOutOfBoundsException.class, () -> journal.replay(0, 2, (id, account, amount, debit) -> { }));
+            assertThrows(IndexOutOfBoundsException.class, () -> journal.replay(2, (id, account, amount, debit) -> { }));
+        }
+    }
+
+    @Test
+    @DisplayName("should continue scoring like the original engine after recovering from snapshot and journal tail")
+    void shouldContinueScoringLikeOriginalEngineAfterRecovery() throws Exception {
+        Path journalPath = directory.resolve("transactions.journal");
+        Path snapshotPath = directory.resolve("engine.snapshot");
+        List<Transaction> transactions = createTransactions(3_000, 17);
+
+        TransactionEngine originalEngine = new TransactionEngine(100);
+        try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+            TransactionEngine journaledEngine = TransactionEngine.builder()
+                .deduplicationWindow(100)
+                .journal(journal)
+                .build();
+            for (var i = 0; i < 2_000; i++) {
+                originalEngine.addTransactionAndDetectFraud(transactions.get(i));
+                journaledEngine.addTransactionAndDetectFraud(transactions.get(i));
+                if (i == 1_200) {
+                    journaledEngine.checkpoint(snapshotPath);
+                }
+            }
+        }
+
+        try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+            TransactionEngine recoveredEngine = TransactionEngine.builder()
+                .deduplicationWindow(100)
+                .journal(journal)
+                .build();
+            recoveredEngine.recover(snapshotPath);
+
+            assertEquals(originalEngine.transactionHistory.size(), recoveredEngine.transactionHistory.size());
+            for (var i = 2_000; i < transactions.size(); i++) {
+                assertEquals(originalEngine.addTransactionAndDetectFraud(transactions.get(i)),
+                    recoveredEngine.addTransactionAndDetectFraud(transactions.get(i)));
+            }
+            assertEquals(originalEngine.scanTransactionPatternAboveThreshold(2_000),
+                recoveredEngine.scanTransactionPatternAboveThreshold(2_000));
+        }
+    }
+
+    @Test
+    @DisplayName("should replay the whole journal when there is no snapshot")
+    void shouldReplayWholeJournalWhenThereIsNoSnapshot() throws Exception {
+        Path journalPath = directory.resolve("transactions.journal");
+        List<Transaction> transactions = createTransactions(500, 5);
+
+        TransactionEngine originalEngine = new TransactionEngine();
+        try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+            TransactionEngine journaledEngine = TransactionEngine.builder().journal(journal).build();
+            transactions.forEach(originalEngine::addTransactionAndDetectFraud);
+            transactions.forEach(journaledEngine::addTransactionAndDetectFraud);
+        }
+
+        try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+            TransactionEngine recoveredEngine = TransactionEngine.builder().journal(journal).build();
+            recoveredEngine.recover(directory.resolve("missing.snapshot"));
+
+            for (var accountId = 0; accountId < 20; accountId++) {
+                assertEquals(originalEngine.getAverageTransactionAmountByAccount(accountId),
+                    recoveredEngine.getAverageTransactionAmountByAccount(accountId));
+            }
+            assertEquals(originalEngine.getTransactionPatternAboveThreshold(originalEngine.THRESHOLD),
+                recoveredEngine.getTransactionPatternAboveThreshold(recoveredEngine.THRESHOLD));
+        }
+    }
+
+    @Test
+    @DisplayName("should refuse to checkpoint without a journal")
+    void shouldRefuseToCheckpointWithoutJournal() {
+        assertThrows(IllegalStateException.class,
+            () -> new TransactionEngine().checkpoint(directory.resolve("engine.snapshot")));
+    }
+
+    @Test
+    @DisplayName("should keep journal records inside a single page")
+    void shouldKeepJournalRecordsInsideSinglePage() {
+        assertEquals(0, TransactionJournal.PAGE_LENGTH % TransactionJournal.RECORD_LENGTH);
+        assertEquals(0, TransactionJournal.HEADER_LENGTH % TransactionJournal.PAGE_LENGTH);
+    }
+
+    @Test
+    @DisplayName("should end the journal at the first torn record after the last checkpoint")
+    void shouldEndJournalAtFirstTornRecordAfterLastCheckpoint() throws Exception {
+        Path path = directory.resolve("transactions.journal");
+        Path crashedPath = directory.resolve("crashed.journal");
+        try (TransactionJournal journal = TransactionJournal.open(path)) {
+            for (var i = 0; i < 5; i++) {
+                journal.append(i, 1, 100 + i, false);
+            }
+            journal.force();
+            for (var i = 5; i < 10; i++) {
+                journal.append(i, 1, 100 + i, false);
+            }
+            Files.copy(path, crashedPath);
+        }
+        corruptRecord(crashedPath, 7);
+
+        try (TransactionJournal journal = TransactionJournal.open(crashedPath)) {
+            assertEquals(7, journal.size());
+            assertEquals(6, journal.find(6));
+            assertEquals(-1, journal.find(8));
+        }
+    }
+
+    @Test
+    @DisplayName("should not resurrect stale records behind a rewritten torn record")
+    void shouldNotResurrectStaleRecordsBehindRewrittenTornRecord() throws Exception {
+        Path path = directory.resolve("transactions.journal");
+        Path crashedPath = directory.resolve("crashed.journal");
+        try (TransactionJournal journal = TransactionJournal.open(path)) {
+            for (var i = 0; i < 10; i++) {
+                journal.append(i, 1, 100 + i, false);
+            }
+            Files.copy(path, crashedPath);
+        }
+        corruptRecord(crashedPath, 4);
+
+        Path recrashedPath = directory.resolve("recrashed.journal");
+        try (TransactionJournal journal = TransactionJournal.open(crashedPath)) {
+            assertEquals(4, journal.size());
+            journal.append(40, 2, 400, true);
+            Files.copy(crashedPath, recrashedPath);
+        }
+
+        try (TransactionJournal journal = TransactionJournal.open(recrashedPath)) {
+            assertEquals(5, journal.size());
+            assertEquals(4, journal.find(40));
+            assertEquals(-1, journal.find(5));
+        }
+    }
+
+    @Test
+    @DisplayName("should refuse to open a file without a journal header")
+    void shouldRefuseToOpenFileWithoutJournalHeader() throws Exception {
+        Path path = directory.resolve("transactions.journal");
+        Files.write(path, new byte[TransactionJournal.HEADER_LENGTH]);
+
+        assertThrows(IOException.class, () -> TransactionJournal.open(path));
+    }
+
+    @Test
+    @DisplayName("should restore custom fraud rule state from the snapshot")
+    void shouldRestoreCustomFraudRuleStateFromSnapshot() throws Exception {
+        Path journalPath = directory.resolve("transactions.journal");
+        Path snapshotPath = directory.resolve("engine.snapshot");
+        List<Transaction> transactions = createTransactions(1_000, 23);
+
+        TransactionEngine originalEngine = createEngineWithCustomRule(null);
+        try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+            TransactionEngine journaledEngine = createEngineWithCustomRule(journal);
+            for (var i = 0; i < 600; i++) {
+                originalEngine.addTransactionAndDetectFraud(transactions.get(i));
+                journaledEngine.addTransactionAndDetectFraud(transactions.get(i));
+            }
+            journaledEngine.checkpoint(snapshotPath);
+        }
+
+        try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+            TransactionEngine recoveredEngine = createEngineWithCustomRule(journal);
+            recoveredEngine.recover(snapshotPath);
+
+            for (var i = 600; i < transactions.size(); i++) {
+                assertEquals(originalEngine.addTransactionAndDetectFraud(transactions.get(i)),
+                    recoveredEngine.addTransactionAndDetectFraud(transactions.get(i)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should refuse to recover a snapshot taken with a different fraud rule pipeline")
+    void shouldRefuseToRecoverSnapshotTakenWithDifferentFraudRulePipeline() throws Exception {
+        Path journalPath = directory.resolve("transactions.journal");
+        Path snapshotPath = directory.resolve("engine.snapshot");
+        try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+            TransactionEngine journaledEngine = createEngineWithCustomRule(journal);
+            createTransactions(100, 3).forEach(journaledEngine::addTransactionAndDetectFraud);
+            journaledEngine.checkpoint(snapshotPath);
+        }
+
+        try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+            TransactionEngine recoveredEngine = TransactionEngine.builder().journal(journal).build();
+            assertThrows(IllegalStateException.class, () -> recoveredEngine.recover(snapshotPath));
+        }
+    }
+}
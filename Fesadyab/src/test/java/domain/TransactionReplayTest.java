@@ -0,0 +1,63 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TransactionReplayTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("should replay every frame of file through engine like one at a time ingestion")
+    void shouldReplayEveryFrameLikeOneAtATimeIngestion() throws IOException {
+        Path path = directory.resolve("feed.bin");
+        TransactionReplay.generate(path, 10_000, 50);
+
+        TransactionEngine expectedEngine = new TransactionEngine();
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path)).order(TransactionFrame.BYTE_ORDER);
+        TransactionFrameDecoder decoder = new TransactionFrameDecoder();
+        var expectedFraudulent = 0;
+        for (var offset = 0; offset < buffer.limit(); offset += decoder.encodedLength()) {
+            if (expectedEngine.addTransactionAndDetectFraud(decoder.wrap(buffer, offset).decode()) != 0) {
+                expectedFraudulent++;
+            }
+        }
+
+        TransactionEngine transactionEngine = new TransactionEngine();
+        TransactionReplay.Result result = TransactionReplay.replay(path, transactionEngine);
+
+        assertEquals(10_000, result.records());
+        assertEquals(expectedFraudulent, result.fraudulent());
+        assertEquals(10_000, transactionEngine.getHistorySize());
+        assertTrue(result.recordsPerSecond() > 0);
+        for (var accountId = 0; accountId < 50; accountId++) {
+            assertEquals(expectedEngine.getAverageTransactionAmountByAccount(accountId),
+                transactionEngine.getAverageTransactionAmountByAccount(accountId));
+        }
+    }
+
+    @Test
+    @DisplayName("should reject file ending in truncated frame")
+    void shouldRejectFileEndingInTruncatedFrame() throws IOException {
+        Path path = directory.resolve("feed.bin");
+        TransactionReplay.generate(path, 10, 5);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        assertThrows(IOException.class, () -> TransactionReplay.replay(path, new TransactionEngine()));
+    }
+}
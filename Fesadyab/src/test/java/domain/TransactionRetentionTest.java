@@ -0,0 +1,212 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+public class TransactionRetentionTest {
+
+    private static final int[] AMOUNTS = { 500, 900, 1_100, 1_200, 1_300, 1_400, 4_000 };
+
+    static Stream<Arguments> retentionPolicyProvider() {
+        return Stream.of(
+            Arguments.of(Named.of("max records", RetentionPolicy.maxRecords(6)), 0),
+            Arguments.of(Named.of("max records per account", RetentionPolicy.maxRecordsPerAccount(2)), 0),
+            Arguments.of(Named.of("max age", RetentionPolicy.maxAge(Duration.ofMillis(40))), 0),
+            Arguments.of(Named.of("combined", RetentionPolicy.maxRecords(8)
+                .and(RetentionPolicy.maxRecordsPerAccount(3))
+                .and(RetentionPolicy.maxAge(Duration.ofMillis(60)))), 0),
+            Arguments.of(Named.of("max records with repeated ids", RetentionPolicy.maxRecords(8)), 2),
+            Arguments.of(Named.of("combined with repeated ids", RetentionPolicy.maxRecords(8)
+                .and(RetentionPolicy.maxRecordsPerAccount(3))
+                .and(RetentionPolicy.maxAge(Duration.ofMillis(60)))), 1)
+        );
+    }
+
+    private static void retain(List<Transaction> retained, RetentionPolicy retentionPolicy, int accountId) {
+        if (retentionPolicy.getMaxRecordsPerAccount() > 0) {
+            var count = retained.stream().filter(txn -> txn.getAccountId() == accountId).count();
+            for (var i = 0; count > retentionPolicy.getMaxRecordsPerAccount(); i++) {
+                if (retained.get(i).getAccountId() == accountId) {
+                    retained.remove(i--);
+                    count--;
+                }
+            }
+        }
+        while (retentionPolicy.getMaxRecords() > 0 && retained.size() > retentionPolicy.getMaxRecords()) {
+            retained.remove(0);
+        }
+    }
+
+    private static void expire(List<Transaction> retained, RetentionPolicy retentionPolicy, long now) {
+        while (retentionPolicy.isTimeBased() && !retained.isEmpty()
+            && retained.get(0).getTimestamp() <= now - retentionPolicy.getMaxAgeMillis()) {
+            retained.remove(0);
+        }
+    }
+
+    private static List<Transaction> retainedTransactions(TransactionEngine transactionEngine) {
+        List<Transaction> transactions = new ArrayList<>();
+        transactionEngine.forEachTransaction((transactionId, accountId, amount, isDebit) ->
+            transactions.add(Transaction.builder()
+                .transactionId(transactionId)
+                .accountId(accountId)
+                .amount(amount)
+                .isDebit(isDebit)
+                .build()));
+        return transactions;
+    }
+
+    @ParameterizedTest
+    @MethodSource("retentionPolicyProvider")
+    @DisplayName("should score like an engine holding only the retained transactions")
+    void shouldScoreLikeEngineHoldingOnlyRetainedTransactions(RetentionPolicy retentionPolicy,
+        int deduplicationWindow) {
+        Random random = new Random(11);
+        TransactionEngine transactionEngine = TransactionEngine.builder()
+            .retentionPolicy(retentionPolicy)
+            .deduplicationWindow(deduplicationWindow)
+            .build();
+        List<Transaction> retained = new ArrayList<>();
+        ArrayDeque<Long> recentIds = new ArrayDeque<>();
+        var timestamp = 1L;
+        var patternHits = 0;
+
+        for (var i = 0; i < 6_000; i++) {
+            timestamp += random.nextInt(15);
+            long transactionId = deduplicationWindow == 0 ? i + 1 : random.nextInt(6) + 1;
+            Transaction transaction = Transaction.builder()
+                .transactionId(transactionId)
+                .accountId(random.nextInt(3))
+                .amount(AMOUNTS[random.nextInt(AMOUNTS.length)])
+                .isDebit(random.nextInt(4) == 0)
+                .timestamp(timestamp)
+                .build();
+
+            expire(retained, retentionPolicy, timestamp);
+            ColumnarTransactionHistory history = new ColumnarTransactionHistory();
+            retained.forEach(history::add);
+            TransactionEngine referenceEngine = new TransactionEngine(history);
+            var duplicate = deduplicationWindow == 0 ? false : recentIds.contains(transactionId);
+            var expectedFraudScore = duplicate ? 0 : referenceEngine.detectFraudulentTransaction(transaction);
+            if (expectedFraudScore == 0 && !duplicate) {
+                expectedFraudScore = referenceEngine.getTransactionPatternAboveThreshold(1_000);
+            }
+
+            assertEquals(expectedFraudScore, transactionEngine.addTransactionAndDetectFraud(transaction),
+                "fraud score of transaction " + i);
+            if (!duplicate) {
+                retained.add(transaction);
+                retain(retained, retentionPolicy, transaction.getAccountId());
+                recentIds.addLast(transactionId);
+                if (recentIds.size() > deduplicationWindow) {
+                    recentIds.removeFirst();
+                }
+            }
+
+            assertEquals(retained, retainedTransactions(transactionEngine));
+            assertEquals(retained.size(), transactionEngine.getHistorySize());
+            ColumnarTransactionHistory retainedHistory = new ColumnarTransactionHistory();
+            retained.forEach(retainedHistory::add);
+            TransactionEngine retainedEngine = new TransactionEngine(retainedHistory);
+            var pattern = retainedEngine.getTransactionPatternAboveThreshold(1_000);
+            assertEquals(pattern, transactionEngine.getTransactionPatternAboveThreshold(1_000));
+            assertEquals(retainedEngine.scanTransactionPatternAboveThreshold(1_200),
+                transactionEngine.getTransactionPatternAboveThreshold(1_200));
+            for (var accountId = 0; accountId < 3; accountId++) {
+                assertEquals(retainedEngine.getAverageTransactionAmountByAccount(accountId),
+                    transactionEngine.getAverageTransactionAmountByAccount(accountId));
+            }
+            if (pattern != 0) {
+                patternHits++;
+            }
+        }
+
+        assertTrue(patternHits > 0);
+    }
+
+    @Test
+    @DisplayName("should hold a flat memory footprint once retention is reached")
+    void shouldHoldFlatMemoryFootprintOnceRetentionIsReached() {
+        TransactionEngine transactionEngine = TransactionEngine.builder()
+            .retentionPolicy(RetentionPolicy.maxRecords(10_000).and(RetentionPolicy.maxRecordsPerAccount(50)))
+            .build();
+        for (var i = 0; i < 100_000; i++) {
+            transactionEngine.addTransactionAndDetectFraud(i + 1, i % 1_000, 1_000 + i % 13, i % 5 == 0);
+        }
+        var footprint = transactionEngine.estimateMemoryBytes();
+
+        for (var i = 100_000; i < 1_000_000; i++) {
+            transactionEngine.addTransactionAndDetectFraud(i + 1, i % 1_000, 1_000 + i % 13, i % 5 == 0);
+        }
+
+        assertEquals(10_000, transactionEngine.getHistorySize());
+        assertTrue(transactionEngine.estimateMemoryBytes() <= footprint * 11 / 10,
+            transactionEngine.estimateMemoryBytes() + " > " + footprint);
+        assertTrue(transactionEngine.transactionIds.size() <= 10_000);
+    }
+
+    @Test
+    @DisplayName("should rescan the retained pattern only when the id of its step record repeats")
+    void shouldRescanRetainedPatternOnlyWhenIdOfStepRecordRepeats() {
+        TransactionEngine transactionEngine = TransactionEngine.builder()
+            .retentionPolicy(RetentionPolicy.maxRecords(1_000))
+            .deduplicationWindow(1)
+            .build();
+        transactionEngine.addTransactionAndDetectFraud(1_000, 1, 500, false);
+        transactionEngine.addTransactionAndDetectFraud(1_001, 1, 1_100, false);
+        for (var i = 0; i < 500; i++) {
+            transactionEngine.addTransactionAndDetectFraud(i % 50 + 1, 2, 900, false);
+        }
+
+        assertFalse(transactionEngine.retention.isPatternAffectedByRepeatedIds());
+        assertEquals(600, transactionEngine.getTransactionPatternAboveThreshold(1_000));
+
+        transactionEngine.addTransactionAndDetectFraud(1_001, 2, 900, false);
+
+        assertTrue(transactionEngine.retention.isPatternAffectedByRepeatedIds());
+        assertEquals(transactionEngine.scanTransactionPatternAboveThreshold(1_000),
+            transactionEngine.getTransactionPatternAboveThreshold(1_000));
+    }
+
+    @Test
+    @DisplayName("should require timestamps when retaining by age")
+    void shouldRequireTimestampsWhenRetainingByAge() {
+        TransactionEngine transactionEngine = TransactionEngine.builder()
+            .retentionPolicy(RetentionPolicy.maxAge(Duration.ofMinutes(1)))
+            .build();
+        assertThrows(IllegalArgumentException.class,
+            () -> transactionEngine.addTransactionAndDetectFraud(1, 1, 1_000, false));
+    }
+
+    @Test
+    @DisplayName("should apply retention to transactions already in history")
+    void shouldApplyRetentionToTransactionsAlreadyInHistory() {
+        ColumnarTransactionHistory history = new ColumnarTransactionHistory();
+        for (var i = 0; i < 5_000; i++) {
+            history.add(i + 1, i % 10, i, false);
+        }
+        TransactionEngine transactionEngine = TransactionEngine.builder()
+            .transactionHistory(history)
+            .retentionPolicy(RetentionPolicy.maxRecordsPerAccount(3))
+            .build();
+
+        assertEquals(30, transactionEngine.getHistorySize());
+        assertEquals(4_980, transactionEngine.getAverageTransactionAmountByAccount(0));
+    }
+}
@@ -1,5 +1,6 @@
 package domain;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -37,4 +38,11 @@ public class TransactionTest {
     void equalt_shouldReturnFalse_whenObjectIsNotInstanceOfTransaction() {
         assertFalse(transaction.equals(Faker.instance().animal()));
     }
+
+    @Test
+    void hashCode_shouldBeEqual_whenTransactionsAreEqual() {
+        Transaction sameTransaction = TransactionFaker.createTransaction();
+        sameTransaction.setTransactionId(transaction.getTransactionId());
+        assertEquals(transaction.hashCode(), sameTransaction.hashCode());
+    }
 }
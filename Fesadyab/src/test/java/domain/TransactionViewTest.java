@@ -0,0 +1,108 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import util.TransactionFaker;
+
+public class TransactionViewTest {
+
+    private static ByteBuffer encode(List<Transaction> transactions) {
+        ByteBuffer buffer = ByteBuffer.allocate(transactions.size() * TransactionLayout.RECORD_LENGTH)
+            .order(TransactionLayout.BYTE_ORDER);
+        TransactionView view = new TransactionView().wrap(buffer);
+        for (Transaction transaction : transactions) {
+            view.next();
+            view.setTransactionId(transaction.getTransactionId())
+                .setAccountId(transaction.getAccountId())
+                .setAmount(transaction.getAmount())
+                .setDebit(transaction.isDebit());
+        }
+        return buffer;
+    }
+
+    @Test
+    @DisplayName("should read back the records it wrote")
+    void shouldReadBackRecordsItWrote() {
+        Transaction first = TransactionFaker.createTransaction(1, 500, true);
+        Transaction second = TransactionFaker.createTransaction(-7, Integer.MIN_VALUE, false);
+        TransactionView view = new TransactionView().wrap(encode(List.of(first, second)));
+
+        assertTrue(view.next());
+        assertEquals(first.getTransactionId(), view.getTransactionId());
+        assertEquals(1, view.getAccountId());
+        assertEquals(500, view.getAmount());
+        assertTrue(view.isDebit());
+        assertTrue(view.next());
+        assertEquals(second.getTransactionId(), view.getTransactionId());
+        assertEquals(-7, view.getAccountId());
+        assertEquals(Integer.MIN_VALUE, view.getAmount());
+        assertFalse(view.isDebit());
+        assertFalse(view.next());
+    }
+
+    @Test
+    @DisplayName("should reject buffer that does not hold whole records")
+    void shouldRejectBufferThatDoesNotHoldWholeRecords() {
+        TransactionView view = new TransactionView();
+        assertThrows(IllegalArgumentException.class,
+            () -> view.wrap(ByteBuffer.allocate(TransactionLayout.RECORD_LENGTH + 1)
+                .order(TransactionLayout.BYTE_ORDER)));
+        assertThrows(IllegalArgumentException.class,
+            () -> view.wrap(ByteBuffer.allocate(TransactionLayout.RECORD_LENGTH)
+                .order(java.nio.ByteOrder.BIG_ENDIAN)));
+    }
+
+    @Test
+    @DisplayName("should score records through view like transaction objects")
+    void shouldScoreRecordsThroughViewLikeTransactionObjects() {
+        List<Transaction> transactions = List.of(
+            TransactionFaker.createTransaction(1, 1_000, false),
+            TransactionFaker.createTransaction(1, 2_000, false),
+            TransactionFaker.createTransaction(1, 3_000, false),
+            TransactionFaker.createTransaction(1, 9_000, true),
+            TransactionFaker.createTransaction(2, 4_000, true)
+        );
+        TransactionEngine objectEngine = new TransactionEngine();
+        int[] expectedFraudScores = transactions.stream()
+            .mapToInt(objectEngine::addTransactionAndDetectFraud)
+            .toArray();
+
+        TransactionEngine transactionEngine = new TransactionEngine();
+        TransactionView view = new TransactionView().wrap(encode(transactions));
+        int[] fraudScores = new int[transactions.size()];
+        for (var i = 0; view.next(); i++) {
+            fraudScores[i] = transactionEngine.addTransactionAndDetectFraud(view);
+        }
+
+        assertArrayEquals(expectedFraudScores, fraudScores);
+    }
+
+    @Test
+    @DisplayName("should not allocate when ingesting primitive transactions")
+    void shouldNotAllocateWhenIngestingPrimitiveTransactions() {
+        var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        TransactionEngine transactionEngine = new TransactionEngine();
+        for (var i = 1; i <= 100_000; i++) {
+            transactionEngine.addTransactionAndDetectFraud(i, i % 100, 1_000 + i % 7, i % 3 == 0);
+        }
+
+        var allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+        for (var i = 100_001; i <= 101_000; i++) {
+            transactionEngine.addTransactionAndDetectFraud(i, i % 100, 1_000 + i % 7, i % 3 == 0);
+        }
+        var allocated = threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        assertTrue(allocated < 1_024, "allocated " + allocated + " bytes");
+    }
+}
@@ -0,0 +1,80 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class WindowedAccountAggregatesTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 3, 8, 100 })
+    @DisplayName("should average the last transactions of each account")
+    void shouldAverageLastTransactionsOfEachAccount(int maxTransactions) {
+        WindowedAccountAggregates aggregates = new WindowedAccountAggregates(
+            ScoringWindow.lastTransactions(maxTransactions));
+        Deque<Integer> expectedWindow = new ArrayDeque<>();
+        Random random = new Random(maxTransactions);
+
+        for (var i = 0; i < 1_000; i++) {
+            var amount = random.nextInt(10_000);
+            aggregates.add(1, amount, 0);
+            aggregates.add(2 + i % 40, -amount, 0);
+
+            expectedWindow.addLast(amount);
+            if (expectedWindow.size() > maxTransactions) {
+                expectedWindow.removeFirst();
+            }
+
+            var expectedSum = expectedWindow.stream().mapToLong(Integer::longValue).sum();
+            assertEquals((int) (expectedSum / expectedWindow.size()), aggregates.getAverage(1));
+            assertEquals(expectedWindow.size(), aggregates.getCount(1));
+        }
+    }
+
+    @Test
+    @DisplayName("should drop transactions older than the window duration")
+    void shouldDropTransactionsOlderThanWindowDuration() {
+        WindowedAccountAggregates aggregates = new WindowedAccountAggregates(
+            ScoringWindow.lastDuration(Duration.ofSeconds(10), 100));
+        aggregates.add(1, 1_000, 1_000);
+        aggregates.add(1, 3_000, 5_000);
+        aggregates.add(1, 5_000, 10_000);
+
+        assertEquals(3_000, aggregates.getAverage(1, 10_000));
+        assertEquals(4_000, aggregates.getAverage(1, 11_000));
+        assertEquals(5_000, aggregates.getAverage(1, 15_000));
+        assertEquals(0, aggregates.getAverage(1, 20_000));
+        assertEquals(0, aggregates.getCount(1));
+    }
+
+    @Test
+    @DisplayName("should bound time window by transaction count")
+    void shouldBoundTimeWindowByTransactionCount() {
+        WindowedAccountAggregates aggregates = new WindowedAccountAggregates(
+            ScoringWindow.lastDuration(Duration.ofHours(1), 2));
+        aggregates.add(1, 1_000, 1);
+        aggregates.add(1, 2_000, 2);
+        aggregates.add(1, 6_000, 3);
+
+        assertEquals(2, aggregates.getCount(1));
+        assertEquals(4_000, aggregates.getAverage(1, 4));
+    }
+
+    @Test
+    @DisplayName("should reject invalid scoring windows")
+    void shouldRejectInvalidScoringWindows() {
+        assertThrows(IllegalArgumentException.class, () -> ScoringWindow.lastTransactions(0));
+        assertThrows(IllegalArgumentException.class, () -> ScoringWindow.lastDuration(Duration.ZERO, 10));
+        assertThrows(IllegalArgumentException.class, () -> ScoringWindow.lastDuration(Duration.ofSeconds(1), 0));
+        assertThrows(IllegalArgumentException.class, () -> new WindowedAccountAggregates(ScoringWindow.allTime()));
+    }
+}
@@ -1,6 +1,7 @@
 package util;
 
 import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.github.javafaker.Faker;
 
@@ -8,9 +9,12 @@ import domain.Transaction;
 
 public class TransactionFaker {
 
+    private static final AtomicLong lastTransactionId = new AtomicLong();
+
     private static long generateTransactionId() {
         Instant now = Instant.now();
-        return now.getEpochSecond() * 1_000_000 + now.getNano() / 1_000;
+        long transactionId = now.getEpochSecond() * 1_000_000 + now.getNano() / 1_000;
+        return lastTransactionId.accumulateAndGet(transactionId, (last, next) -> Math.max(last + 1, next));
     }
 
     public static Transaction createTransaction() {
@@ -95,6 +95,11 @@ public class ReservationController {
         }
     }
 
+    @GetMapping("/reserves/available/stats")
+    public Response getAvailabilityCacheStats() {
+        return Response.ok("availability cache stats", reserveService.getAvailabilityCacheStats());
+    }
+
     @PostMapping("/reserves/{restaurantId}")
     public Response addReservation(@PathVariable int restaurantId, @RequestBody Map<String, String> params) {
         ControllerUtils.checkRestaurant(restaurantId, restaurantService);
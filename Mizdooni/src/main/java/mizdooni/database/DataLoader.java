@@ -37,7 +37,7 @@ public class DataLoader {
                     new Address(country, city, null),
                     User.Role.valueOf(role)
             );
-            db.users.add(user);
+            db.addUser(user);
         }
     }
 
@@ -48,7 +48,7 @@ public class DataLoader {
         }
 
         for (JsonNode node : restaurantsList) {
-            User manager = getUserByUsername(node.get("managerUsername").asText());
+            User manager = db.getUserByUsername(node.get("managerUsername").asText());
 
             LocalTime startTime = LocalTime.parse(node.get("startTime").asText());
             LocalTime endTime = LocalTime.parse(node.get("endTime").asText());
@@ -67,7 +67,7 @@ public class DataLoader {
                     new Address(country, city, street),
                     node.get("image").asText()
             );
-            db.restaurants.add(restaurant);
+            db.addRestaurant(restaurant);
         }
     }
 
@@ -78,7 +78,7 @@ public class DataLoader {
         }
 
         for (JsonNode node : tablesList) {
-            Restaurant restaurant = getRestaurantByName(node.get("restaurantName").asText());
+            Restaurant restaurant = db.getRestaurantByName(node.get("restaurantName").asText());
 
             int tableNumber = node.get("tableNumber").asInt();
             int seatsNumber = node.get("seatsNumber").asInt();
@@ -94,8 +94,8 @@ public class DataLoader {
         }
 
         for (JsonNode node : reviewsList) {
-            Restaurant restaurant = getRestaurantByName(node.get("restaurantName").asText());
-            User user = getUserByUsername(node.get("username").asText());
+            Restaurant restaurant = db.getRestaurantByName(node.get("restaurantName").asText());
+            User user = db.getUserByUsername(node.get("username").asText());
 
             Rating rating = new Rating();
             rating.food = node.get("foodRate").asDouble();
@@ -107,12 +107,4 @@ public class DataLoader {
             restaurant.addReview(new Review(user, rating, comment, LocalDateTime.now()));
         }
     }
-
-    private User getUserByUsername(String username) {
-        return db.users.stream().filter(u -> u.getUsername().equals(username)).findFirst().orElse(null);
-    }
-
-    private Restaurant getRestaurantByName(String name) {
-        return db.restaurants.stream().filter(r -> r.getName().equals(name)).findFirst().orElse(null);
-    }
 }
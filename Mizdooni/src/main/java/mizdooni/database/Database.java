@@ -6,15 +6,68 @@ import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class Database {
-    public List<User> users;
-    public List<Restaurant> restaurants;
+    private final Map<Integer, User> usersById = new ConcurrentHashMap<>();
+    private final Map<String, User> usersByUsername = new ConcurrentHashMap<>();
+    private final Map<String, User> usersByEmail = new ConcurrentHashMap<>();
+    private final List<Restaurant> restaurants = new ArrayList<>();
+    private final Map<Integer, Restaurant> restaurantsById = new ConcurrentHashMap<>();
+    private final Map<String, Restaurant> restaurantsByName = new ConcurrentHashMap<>();
 
     public Database() {
-        users = new ArrayList<>();
-        restaurants = new ArrayList<>();
         new DataLoader(this).read();
     }
+
+    public boolean addUser(User user) {
+        if (usersByUsername.putIfAbsent(user.getUsername(), user) != null) {
+            return false;
+        }
+        if (usersByEmail.putIfAbsent(user.getEmail(), user) != null) {
+            usersByUsername.remove(user.getUsername(), user);
+            return false;
+        }
+        usersById.put(user.getId(), user);
+        return true;
+    }
+
+    public User getUser(int id) {
+        return usersById.get(id);
+    }
+
+    public User getUserByUsername(String username) {
+        return username == null ? null : usersByUsername.get(username);
+    }
+
+    public User getUserByEmail(String email) {
+        return email == null ? null : usersByEmail.get(email);
+    }
+
+    public boolean addRestaurant(Restaurant restaurant) {
+        if (restaurantsByName.putIfAbsent(restaurant.getName(), restaurant) != null) {
+            return false;
+        }
+        restaurantsById.put(restaurant.getId(), restaurant);
+        synchronized (restaurants) {
+            restaurants.add(restaurant);
+        }
+        return true;
+    }
+
+    public Restaurant getRestaurant(int id) {
+        return restaurantsById.get(id);
+    }
+
+    public Restaurant getRestaurantByName(String name) {
+        return name == null ? null : restaurantsByName.get(name);
+    }
+
+    public List<Restaurant> getRestaurants() {
+        synchronized (restaurants) {
+            return List.copyOf(restaurants);
+        }
+    }
 }
@@ -8,7 +8,7 @@ public class Reservation {
     private Table table;
     private LocalDateTime datetime;
     private String reservationNumber;
-    private boolean cancelled;
+    private volatile boolean cancelled;
 
     public Reservation(User user, Restaurant restaurant, Table table, LocalDateTime datetime) {
         this.user = user;
@@ -21,6 +21,9 @@ public class Reservation {
 
     public void cancel() {
         this.cancelled = true;
+        if (table != null) {
+            table.releaseReservation(this);
+        }
     }
 
     public boolean isCancelled() {
@@ -1,11 +1,15 @@
 package mizdooni.model;
 
 import java.time.LocalTime;
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Restaurant {
-    private static int idCounter = 0;
+    private static final AtomicInteger idCounter = new AtomicInteger();
     private int id;
     private String name;
     private User manager;
@@ -16,11 +20,15 @@ public class Restaurant {
     private Address address;
     private String imageLink;
     private List<Table> tables;
-    private List<Review> reviews;
+    private List<Table> tableView;
+    private Map<Integer, Review> reviews;
+    private volatile List<Review> reviewList;
+    private Rating ratingSum;
+    private int reviewCount;
 
     public Restaurant(String name, User manager, String type, LocalTime startTime, LocalTime endTime,
                       String description, Address address, String imageLink) {
-        this.id = idCounter++;
+        this.id = idCounter.getAndIncrement();
         this.name = name;
         this.manager = manager;
         this.type = type;
@@ -29,49 +37,54 @@ public class Restaurant {
         this.description = description;
         this.address = address;
         this.imageLink = imageLink;
-        this.tables = new ArrayList<>();
-        this.reviews = new ArrayList<>();
+        this.tables = new CopyOnWriteArrayList<>();
+        this.tableView = Collections.unmodifiableList(tables);
+        this.reviews = new LinkedHashMap<>();
+        this.reviewList = List.of();
+        this.ratingSum = new Rating();
     }
 
     public Table getTable(int tableNumber) {
         return tables.stream().filter(t -> t.getTableNumber() == tableNumber).findFirst().orElse(null);
     }
 
-    public void addTable(Table table) {
+    public synchronized void addTable(Table table) {
         table.setTableNumber(tables.size() + 1);
         tables.add(table);
     }
 
-    public void addReview(Review review) {
-        for (Review r : reviews) {
-            if (r.getUser().equals(review.getUser())) {
-                reviews.remove(r);
-                break;
-            }
+    public synchronized void addReview(Review review) {
+        Review previous = reviews.remove(review.getUser().getId());
+        if (previous != null) {
+            addToRatingSum(previous.getRating(), -1);
+            reviewCount--;
         }
-        reviews.add(review);
+        reviews.put(review.getUser().getId(), review);
+        reviewList = null;
+        addToRatingSum(review.getRating(), 1);
+        reviewCount++;
     }
 
-    public Rating getAverageRating() {
+    public synchronized Rating getAverageRating() {
         Rating average = new Rating();
 
-        for (Review r : reviews) {
-            average.food += r.getRating().food;
-            average.service += r.getRating().service;
-            average.ambiance += r.getRating().ambiance;
-            average.overall += r.getRating().overall;
-        }
-
-        if (!reviews.isEmpty()) {
-            average.food /= reviews.size();
-            average.service /= reviews.size();
-            average.ambiance /= reviews.size();
-            average.overall /= reviews.size();
+        if (reviewCount > 0) {
+            average.food = ratingSum.food / reviewCount;
+            average.service = ratingSum.service / reviewCount;
+            average.ambiance = ratingSum.ambiance / reviewCount;
+            average.overall = ratingSum.overall / reviewCount;
         }
 
         return average;
     }
 
+    private void addToRatingSum(Rating rating, int sign) {
+        ratingSum.food += sign * rating.food;
+        ratingSum.service += sign * rating.service;
+        ratingSum.ambiance += sign * rating.ambiance;
+        ratingSum.overall += sign * rating.overall;
+    }
+
     public int getStarCount() {
         return getAverageRating().getStarCount();
     }
@@ -81,7 +94,7 @@ public class Restaurant {
     }
 
     public List<Table> getTables() {
-        return tables;
+        return tableView;
     }
 
     public int getId() {
@@ -113,7 +126,20 @@ public class Restaurant {
     }
 
     public List<Review> getReviews() {
-        return reviews;
+        List<Review> list = reviewList;
+        if (list == null) {
+            synchronized (this) {
+                if (reviewList == null) {
+                    reviewList = List.copyOf(reviews.values());
+                }
+                list = reviewList;
+            }
+        }
+        return list;
+    }
+
+    public synchronized int getReviewCount() {
+        return reviewCount;
     }
 
     public String getDescription() { return description; }
@@ -44,13 +44,13 @@ public class RestaurantSearchFilter {
         }
         if (sort != null) {
             if (sort.equals(SORT_BY_RATING)) {
-                Comparator<Restaurant> comparator = Comparator.comparing(r -> r.getAverageRating().overall);
+                Comparator<Restaurant> comparator = Comparator.comparingDouble(r -> r.getAverageRating().overall);
                 if (order != null && order.equals(ORDER_ASC)) {
                     comparator = comparator.reversed();
                 }
                 rest.sort(comparator.reversed());
             } else if (sort.equals(SORT_BY_REVIEWS)) {
-                Comparator<Restaurant> comparator = Comparator.comparingInt(r -> r.getReviews().size());
+                Comparator<Restaurant> comparator = Comparator.comparingInt(Restaurant::getReviewCount);
                 if (order != null && order.equals(ORDER_ASC)) {
                     comparator = comparator.reversed();
                 }
@@ -1,28 +1,77 @@
 package mizdooni.model;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class Table {
     private int tableNumber;
     private int restaurantId;
     private int seatsNumber;
     private List<Reservation> reservations;
+    private Map<LocalDate, Day> schedule;
 
     public Table(int tableNumber, int restaurantId, int seatsNumber) {
         this.tableNumber = tableNumber;
         this.restaurantId = restaurantId;
         this.seatsNumber = seatsNumber;
         this.reservations = new ArrayList<>();
+        this.schedule = new ConcurrentHashMap<>();
     }
 
-    public void addReservation(Reservation reservation) {
+    public synchronized void addReservation(Reservation reservation) {
         reservations.add(reservation);
+        Day day = schedule.computeIfAbsent(reservation.getDateTime().toLocalDate(), d -> new Day());
+        day.reservations.add(reservation);
+        if (!reservation.isCancelled() && isOnTheHour(reservation.getDateTime())) {
+            day.occupiedHours |= 1L << reservation.getDateTime().getHour();
+        }
+    }
+
+    synchronized void releaseReservation(Reservation reservation) {
+        LocalDateTime datetime = reservation.getDateTime();
+        Day day = schedule.get(datetime.toLocalDate());
+        if (day == null || !isOnTheHour(datetime) || isReserved(day, datetime)) {
+            return;
+        }
+        day.occupiedHours &= ~(1L << datetime.getHour());
     }
 
     public boolean isReserved(LocalDateTime datetime) {
-        return reservations.stream().anyMatch(r -> r.getDateTime().equals(datetime) && !r.isCancelled());
+        if (datetime == null) {
+            return false;
+        }
+        if (isOnTheHour(datetime)) {
+            return (getOccupiedHours(datetime.toLocalDate()) & 1L << datetime.getHour()) != 0;
+        }
+        Day day = schedule.get(datetime.toLocalDate());
+        if (day == null) {
+            return false;
+        }
+        synchronized (this) {
+            return isReserved(day, datetime);
+        }
+    }
+
+    public long getOccupiedHours(LocalDate date) {
+        Day day = schedule.get(date);
+        return day == null ? 0 : day.occupiedHours;
+    }
+
+    public synchronized List<Reservation> getReservations(LocalDate date) {
+        Day day = schedule.get(date);
+        return day == null ? List.of() : List.copyOf(day.reservations);
+    }
+
+    private static boolean isReserved(Day day, LocalDateTime datetime) {
+        return day.reservations.stream().anyMatch(r -> r.getDateTime().equals(datetime) && !r.isCancelled());
+    }
+
+    private static boolean isOnTheHour(LocalDateTime datetime) {
+        return datetime.getMinute() == 0 && datetime.getSecond() == 0 && datetime.getNano() == 0;
     }
 
     public int getTableNumber() {
@@ -37,7 +86,12 @@ public class Table {
         return seatsNumber;
     }
 
-    public List<Reservation> getReservations() {
-        return reservations;
+    public synchronized List<Reservation> getReservations() {
+        return List.copyOf(reservations);
+    }
+
+    private static class Day {
+        private final List<Reservation> reservations = new ArrayList<>();
+        private volatile long occupiedHours;
     }
 }
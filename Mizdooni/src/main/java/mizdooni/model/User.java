@@ -4,6 +4,7 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class User {
     public enum Role {
@@ -11,7 +12,7 @@ public class User {
         manager,
     }
 
-    private static int idCounter = 0;
+    private static final AtomicInteger idCounter = new AtomicInteger();
     private int id;
     private String username;
     private String password;
@@ -21,7 +22,7 @@ public class User {
     private List<Reservation> reservations;
 
     public User(String username, String password, String email, Address address, Role role) {
-        this.id = idCounter++;
+        this.id = idCounter.getAndIncrement();
         this.username = username;
         this.password = password;
         this.email = email;
@@ -30,18 +31,18 @@ public class User {
         this.reservations = new ArrayList<>();
     }
 
-    public void addReservation(Reservation reservation) {
+    public synchronized void addReservation(Reservation reservation) {
         reservation.setReservationNumber(Instant.now().toString());
         reservations.add(reservation);
     }
 
-    public boolean checkReserved(Restaurant restaurant) {
+    public synchronized boolean checkReserved(Restaurant restaurant) {
         return reservations.stream().anyMatch(r -> !r.isCancelled() &&
                 r.getDateTime().isBefore(LocalDateTime.now()) &&
                 r.getRestaurant().equals(restaurant));
     }
 
-    public Reservation getReservation(String reservationNumber) {
+    public synchronized Reservation getReservation(String reservationNumber) {
         for (Reservation r : reservations) {
             if (r.getReservationNumber() == reservationNumber && !r.isCancelled()) {
                 return r;
@@ -50,8 +51,8 @@ public class User {
         return null;
     }
 
-    public List<Reservation> getReservations() {
-        return reservations;
+    public synchronized List<Reservation> getReservations() {
+        return List.copyOf(reservations);
     }
 
     public boolean checkPassword(String pass) {
@@ -9,12 +9,12 @@ import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import mizdooni.model.*;
-import mizdooni.response.serializer.ListSizeSerializer;
 import org.springframework.boot.jackson.JsonMixin;
 
 import java.io.IOException;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 
 @JsonMixin(Restaurant.class)
 @JsonAutoDetect(
@@ -37,10 +37,15 @@ abstract class RestaurantMixin {
 
     @JsonIgnore
     private List<Table> tables;
+    @JsonIgnore
+    private List<Table> tableView;
 
-    @JsonProperty("totalReviews")
-    @JsonSerialize(using = ListSizeSerializer.class)
-    private List<Review> reviews;
+    @JsonIgnore
+    private Map<Integer, Review> reviews;
+    @JsonIgnore
+    private List<Review> reviewList;
+    @JsonIgnore
+    private Rating ratingSum;
 
     @JsonProperty
     abstract int getMaxSeatsNumber();
@@ -48,6 +53,8 @@ abstract class RestaurantMixin {
     abstract int getStarCount();
     @JsonProperty
     abstract Rating getAverageRating();
+    @JsonProperty("totalReviews")
+    abstract int getReviewCount();
 
     static class UsernameSerializer extends JsonSerializer<User> {
         @Override
@@ -0,0 +1,125 @@
+package mizdooni.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@Component
+public class AvailabilityCache {
+    public record Stats(long hits, long misses, int size) {
+    }
+
+    private record Key(int restaurantId, LocalDate date) {
+    }
+
+    private record Candidate(Key key, Entry entry, long lastAccess) {
+    }
+
+    private static class Entry {
+        private final Map<Integer, List<LocalTime>> buckets = new ConcurrentHashMap<>();
+        private volatile long lastAccess;
+    }
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong clock = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    public AvailabilityCache(@Value("${mizdooni.availability-cache.max-size:10000}") int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("availability cache size must be positive");
+        }
+        this.maxSize = maxSize;
+    }
+
+    public List<LocalTime> get(int restaurantId, LocalDate date, int peopleBucket, Supplier<List<LocalTime>> loader) {
+        Key key = new Key(restaurantId, date);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            List<LocalTime> times = entry.buckets.get(peopleBucket);
+            if (times != null) {
+                hits.increment();
+                entry.lastAccess = clock.get();
+                return times;
+            }
+        } else {
+            entry = entries.computeIfAbsent(key, k -> new Entry());
+        }
+        misses.increment();
+        entry.lastAccess = clock.getAndIncrement();
+
+        List<LocalTime> times = List.copyOf(loader.get());
+        Entry loadedInto = entry;
+        entries.computeIfPresent(key, (k, current) -> {
+            if (current == loadedInto && current.buckets.putIfAbsent(peopleBucket, times) == null) {
+                size.incrementAndGet();
+            }
+            return current;
+        });
+        if (size.get() > maxSize) {
+            evict();
+        }
+        return times;
+    }
+
+    public void invalidate(int restaurantId, LocalDate date) {
+        remove(new Key(restaurantId, date), null);
+    }
+
+    public void invalidate(int restaurantId) {
+        for (Key key : entries.keySet()) {
+            if (key.restaurantId() == restaurantId) {
+                remove(key, null);
+            }
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), size.get());
+    }
+
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int target = maxSize - maxSize / 10;
+            List<Candidate> candidates = new ArrayList<>(entries.size());
+            entries.forEach((key, entry) -> candidates.add(new Candidate(key, entry, entry.lastAccess)));
+            candidates.sort(Comparator.comparingLong(Candidate::lastAccess));
+            for (Candidate candidate : candidates) {
+                if (size.get() <= target) {
+                    break;
+                }
+                remove(candidate.key(), candidate.entry());
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void remove(Key key, Entry expected) {
+        entries.computeIfPresent(key, (k, current) -> {
+            if (expected != null && current != expected) {
+                return current;
+            }
+            size.addAndGet(-current.buckets.size());
+            return null;
+        });
+    }
+}
@@ -15,8 +15,6 @@ import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 public class ReservationService {
@@ -24,10 +22,12 @@ public class ReservationService {
     private Database db;
     @Autowired
     private UserService userService;
+    @Autowired
+    private AvailabilityCache availabilityCache;
 
     public List<Reservation> getReservations(int restaurantId, int tableNumber, LocalDate date)
             throws RestaurantNotFound, UserNotFound, UserNotManager, InvalidManagerRestaurant, TableNotFound {
-        Restaurant restaurant = ServiceUtils.findRestaurant(restaurantId, db.restaurants);
+        Restaurant restaurant = db.getRestaurant(restaurantId);
         if (restaurant == null) {
             throw new RestaurantNotFound();
         }
@@ -50,11 +50,7 @@ public class ReservationService {
             throw new TableNotFound();
         }
 
-        List<Reservation> reservations = table.getReservations();
-        if (date != null) {
-            reservations = reservations.stream().filter(reservation -> reservation.getDateTime().toLocalDate().equals(date)).toList();
-        }
-        return reservations;
+        return date == null ? table.getReservations() : table.getReservations(date);
     }
 
     public List<Reservation> getCustomerReservations(int customerId) throws UserNotFound, UserNoAccess {
@@ -70,7 +66,7 @@ public class ReservationService {
 
     public List<LocalTime> getAvailableTimes(int restaurantId, int people, LocalDate date)
             throws RestaurantNotFound, DateTimeInThePast, BadPeopleNumber {
-        Restaurant restaurant = ServiceUtils.findRestaurant(restaurantId, db.restaurants);
+        Restaurant restaurant = db.getRestaurant(restaurantId);
         if (restaurant == null) {
             throw new RestaurantNotFound();
         }
@@ -82,12 +78,13 @@ public class ReservationService {
             throw new BadPeopleNumber();
         }
 
-        Set<LocalTime> availableTimes = restaurant.getTables().stream()
-                .filter(table -> table.getSeatsNumber() >= people)
-                .flatMap(table -> getAvailableTableTimes(table, date, restaurant).stream())
-                .collect(Collectors.toSet());
+        int peopleBucket = Math.min(people, restaurant.getMaxSeatsNumber() + 1);
+        return availabilityCache.get(restaurantId, date, peopleBucket,
+                () -> computeAvailableTimes(restaurant, peopleBucket, date));
+    }
 
-        return availableTimes.stream().sorted().toList();
+    public AvailabilityCache.Stats getAvailabilityCacheStats() {
+        return availabilityCache.getStats();
     }
 
     public Reservation reserveTable(int restaurantId, int people, LocalDateTime datetime)
@@ -108,7 +105,7 @@ public class ReservationService {
             throw new DateTimeInThePast();
         }
 
-        Restaurant restaurant = ServiceUtils.findRestaurant(restaurantId, db.restaurants);
+        Restaurant restaurant = db.getRestaurant(restaurantId);
         if (restaurant == null) {
             throw new RestaurantNotFound();
         }
@@ -117,14 +114,19 @@ public class ReservationService {
             throw new ReservationNotInOpenTimes();
         }
 
-        Table table = findAvailableTable(restaurant, people, datetime);
-        if (table == null) {
-            throw new TableNotFound();
-        }
+        Reservation reservation;
+        // lock order: restaurant, then user or table; the availability cache is never called under these locks
+        synchronized (restaurant) {
+            Table table = findAvailableTable(restaurant, people, datetime);
+            if (table == null) {
+                throw new TableNotFound();
+            }
 
-        Reservation reservation = new Reservation(user, restaurant, table, datetime);
-        user.addReservation(reservation);
-        table.addReservation(reservation);
+            reservation = new Reservation(user, restaurant, table, datetime);
+            user.addReservation(reservation);
+            table.addReservation(reservation);
+        }
+        availabilityCache.invalidate(restaurantId, datetime.toLocalDate());
         return reservation;
     }
 
@@ -144,27 +146,32 @@ public class ReservationService {
         }
 
         reservation.cancel();
+        availabilityCache.invalidate(reservation.getRestaurant().getId(), reservation.getDateTime().toLocalDate());
     }
 
-    private List<LocalTime> getAvailableTableTimes(Table table, LocalDate date, Restaurant restaurant) {
-        Set<LocalTime> reserves = table.getReservations().stream()
-                .filter(r -> r.getDateTime().toLocalDate().equals(date) && !r.isCancelled())
-                .map(r -> r.getDateTime().toLocalTime())
-                .collect(Collectors.toSet());
-
-        List<LocalTime> availableTimes = new ArrayList<>();
-        int startTime = restaurant.getStartTime().getHour();
-        int endTime = restaurant.getEndTime().getHour();
-
-        for (int i = startTime; i <= endTime; i++) {
-            LocalTime time = LocalTime.of(i, 0);
-            if (!reserves.contains(time)) {
-                availableTimes.add(time);
+    private List<LocalTime> computeAvailableTimes(Restaurant restaurant, int people, LocalDate date) {
+        long openHours = hourRange(restaurant.getStartTime().getHour(), restaurant.getEndTime().getHour());
+        long availableHours = 0;
+        for (Table table : restaurant.getTables()) {
+            if (table.getSeatsNumber() >= people) {
+                availableHours |= openHours & ~table.getOccupiedHours(date);
             }
         }
+
+        List<LocalTime> availableTimes = new ArrayList<>(Long.bitCount(availableHours));
+        for (long hours = availableHours; hours != 0; hours &= hours - 1) {
+            availableTimes.add(LocalTime.of(Long.numberOfTrailingZeros(hours), 0));
+        }
         return availableTimes;
     }
 
+    private static long hourRange(int startHour, int endHour) {
+        if (startHour > endHour) {
+            return 0;
+        }
+        return (-1L >>> (63 - endHour)) & (-1L << startHour);
+    }
+
     private Table findAvailableTable(Restaurant restaurant, int people, LocalDateTime datetime) {
         return restaurant.getTables().stream()
                 .filter(table -> table.getSeatsNumber() >= people && !table.isReserved(datetime))
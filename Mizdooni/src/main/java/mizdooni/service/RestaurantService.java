@@ -26,11 +26,11 @@ public class RestaurantService {
     private UserService userService;
 
     public Restaurant getRestaurant(int restaurantId) {
-        return ServiceUtils.findRestaurant(restaurantId, db.restaurants);
+        return db.getRestaurant(restaurantId);
     }
 
     public PagedList<Restaurant> getRestaurants(int page, RestaurantSearchFilter filter) {
-        List<Restaurant> restaurants = db.restaurants;
+        List<Restaurant> restaurants = db.getRestaurants();
         if (filter != null) {
             restaurants = filter.filter(restaurants);
         }
@@ -38,7 +38,7 @@ public class RestaurantService {
     }
 
     public List<Restaurant> getManagerRestaurants(int managerId) {
-        return db.restaurants.stream().filter(r -> r.getManager().getId() == managerId).collect(Collectors.toList());
+        return db.getRestaurants().stream().filter(r -> r.getManager().getId() == managerId).collect(Collectors.toList());
     }
 
     public int addRestaurant(String name, String type, LocalTime startTime, LocalTime endTime, String description,
@@ -57,20 +57,22 @@ public class RestaurantService {
         }
 
         Restaurant restaurant = new Restaurant(name, manager, type, startTime, endTime, description, address, imageLink);
-        db.restaurants.add(restaurant);
+        if (!db.addRestaurant(restaurant)) {
+            throw new DuplicatedRestaurantName();
+        }
         return restaurant.getId();
     }
 
     public boolean restaurantExists(String name) {
-        return db.restaurants.stream().anyMatch(r -> r.getName().equals(name));
+        return db.getRestaurantByName(name) != null;
     }
 
     public Set<String> getRestaurantTypes() {
-        return db.restaurants.stream().map(Restaurant::getType).collect(Collectors.toSet());
+        return db.getRestaurants().stream().map(Restaurant::getType).collect(Collectors.toSet());
     }
 
     public Map<String, Set<String>> getRestaurantLocations() {
-        return db.restaurants.stream().collect(Collectors.groupingBy(r -> r.getAddress().getCountry(),
+        return db.getRestaurants().stream().collect(Collectors.groupingBy(r -> r.getAddress().getCountry(),
                 Collectors.mapping(r -> r.getAddress().getCity(), Collectors.toSet())));
     }
 }
@@ -20,7 +20,7 @@ public class ReviewService {
     private UserService userService;
 
     public PagedList<Review> getReviews(int restaurantId, int page) throws RestaurantNotFound {
-        Restaurant restaurant = ServiceUtils.findRestaurant(restaurantId, db.restaurants);
+        Restaurant restaurant = db.getRestaurant(restaurantId);
         if (restaurant == null) {
             throw new RestaurantNotFound();
         }
@@ -38,7 +38,7 @@ public class ReviewService {
             throw new ManagerCannotReview();
         }
 
-        Restaurant restaurant = ServiceUtils.findRestaurant(restaurantId, db.restaurants);
+        Restaurant restaurant = db.getRestaurant(restaurantId);
         if (restaurant == null) {
             throw new RestaurantNotFound();
         }
@@ -1,14 +1,10 @@
 package mizdooni.service;
 
-import mizdooni.model.Restaurant;
-import mizdooni.model.User;
-
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 
 public class ServiceUtils {
@@ -28,12 +24,4 @@ public class ServiceUtils {
     static boolean validateWorkingTime(LocalTime time) {
         return time.getMinute() == 0;
     }
-
-    static boolean userIsTaken(String username, String email, List<User> users) {
-        return users.stream().anyMatch(u -> u.getUsername().equals(username) || u.getEmail().equals(email));
-    }
-
-    static Restaurant findRestaurant(int id, List<Restaurant> restaurants) {
-        return restaurants.stream().filter(r -> r.getId() == id).findFirst().orElse(null);
-    }
 }
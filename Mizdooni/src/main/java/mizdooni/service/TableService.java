@@ -18,9 +18,11 @@ public class TableService {
     private Database db;
     @Autowired
     private UserService userService;
+    @Autowired
+    private AvailabilityCache availabilityCache;
 
     public List<Table> getTables(int restaurantId) throws RestaurantNotFound {
-        Restaurant restaurant = ServiceUtils.findRestaurant(restaurantId, db.restaurants);
+        Restaurant restaurant = db.getRestaurant(restaurantId);
         if (restaurant == null) {
             throw new RestaurantNotFound();
         }
@@ -30,7 +32,7 @@ public class TableService {
     public void addTable(int restaurantId, int seatsNumber)
             throws RestaurantNotFound, UserNotManager, InvalidManagerRestaurant {
         User manager = userService.getCurrentUser();
-        Restaurant restaurant = ServiceUtils.findRestaurant(restaurantId, db.restaurants);
+        Restaurant restaurant = db.getRestaurant(restaurantId);
 
         if (restaurant == null) {
             throw new RestaurantNotFound();
@@ -44,5 +46,6 @@ public class TableService {
 
         Table table = new Table(0, restaurantId, seatsNumber);
         restaurant.addTable(table);
+        availabilityCache.invalidate(restaurantId);
     }
 }
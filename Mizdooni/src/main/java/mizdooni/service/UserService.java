@@ -14,14 +14,14 @@ import org.springframework.stereotype.Service;
 public class UserService {
     @Autowired
     private Database db;
-    private User currentUser = null;
+    private volatile User currentUser = null;
 
     public User getCurrentUser() {
         return currentUser;
     }
 
     public boolean login(String username, String password) {
-        User user = db.users.stream().filter(u -> u.getUsername().equals(username)).findFirst().orElse(null);
+        User user = db.getUserByUsername(username);
         if (user != null && user.checkPassword(password)) {
             currentUser = user;
             return true;
@@ -37,12 +37,14 @@ public class UserService {
         if (!ServiceUtils.validateEmail(email)) {
             throw new InvalidEmailFormat();
         }
-        if (ServiceUtils.userIsTaken(username, email, db.users)) {
+        if (usernameExists(username) || emailExists(email)) {
             throw new DuplicatedUsernameEmail();
         }
 
         User user = new User(username, password, email, address, role);
-        db.users.add(user);
+        if (!db.addUser(user)) {
+            throw new DuplicatedUsernameEmail();
+        }
     }
 
     public boolean logout() {
@@ -54,20 +56,17 @@ public class UserService {
     }
 
     public boolean usernameExists(String username) {
-        return db.users.stream().anyMatch(u -> u.getUsername().equals(username));
+        return db.getUserByUsername(username) != null;
     }
 
     public boolean emailExists(String email) {
-        return db.users.stream().anyMatch(u -> u.getEmail().equals(email));
+        return db.getUserByEmail(email) != null;
     }
 
     public User getManager(int managerId) throws InvalidManagerId {
-        User user = db.users.stream()
-            .filter(u -> u.getRole().equals(User.Role.manager) && u.getId() == managerId)
-            .findFirst()
-            .orElse(null);
+        User user = db.getUser(managerId);
 
-        if (user == null) {
+        if (user == null || user.getRole() != User.Role.manager) {
             throw new InvalidManagerId();
         }
 
@@ -51,6 +51,7 @@ import mizdooni.model.Table;
 import mizdooni.model.User;
 import mizdooni.response.Response;
 import mizdooni.response.ResponseException;
+import mizdooni.service.AvailabilityCache;
 import mizdooni.service.ReservationService;
 import mizdooni.service.RestaurantService;
 import mizdooni.utils.ReservationFaker;
@@ -434,6 +435,21 @@ ResponseAssertion.checkResponse(response, HttpStatus.OK, true, tableReservations
 
     }
 
+    @Nested
+    class GetAvailabilityCacheStats {
+
+        @Test
+        @DisplayName("Should return availability cache stats")
+        void shouldReturnAvailabilityCacheStats() {
+            AvailabilityCache.Stats stats = new AvailabilityCache.Stats(3, 2, 2);
+            when(reservationService.getAvailabilityCacheStats()).thenReturn(stats);
+
+            Response response = reservationController.getAvailabilityCacheStats();
+
+            ResponseAssertion.checkResponse(response, HttpStatus.OK, true, stats, null, "availability cache stats");
+        }
+    }
+
     @Nested
     class AddReservation {
 
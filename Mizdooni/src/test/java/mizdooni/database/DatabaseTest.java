@@ -0,0 +1,128 @@
+package mizdooni.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import mizdooni.model.Restaurant;
+import mizdooni.model.User;
+import mizdooni.utils.AddressFaker;
+import mizdooni.utils.RestaurantFaker;
+import mizdooni.utils.UserFaker;
+
+public class DatabaseTest {
+
+    private Database db;
+
+    @BeforeEach
+    void setUp() {
+        db = new Database();
+    }
+
+    @Nested
+    class Users {
+
+        @Test
+        @DisplayName("an added user is found by id, username and email")
+        void addedUserIsIndexed() {
+            User user = UserFaker.createClient();
+
+            assertTrue(db.addUser(user));
+            assertSame(user, db.getUser(user.getId()));
+            assertSame(user, db.getUserByUsername(user.getUsername()));
+            assertSame(user, db.getUserByEmail(user.getEmail()));
+        }
+
+        @Test
+        @DisplayName("a user with a taken username is rejected and leaves no index entry")
+        void duplicateUsernameIsRejected() {
+            User user = UserFaker.createClient();
+            User duplicate = new User(user.getUsername(), "secret", "other@mizdooni.ir", AddressFaker.createAddress(),
+                User.Role.client);
+            db.addUser(user);
+
+            assertFalse(db.addUser(duplicate));
+            assertSame(user, db.getUserByUsername(user.getUsername()));
+            assertNull(db.getUserByEmail("other@mizdooni.ir"));
+            assertNull(db.getUser(duplicate.getId()));
+        }
+
+        @Test
+        @DisplayName("a user with a taken email is rejected and releases its username")
+        void duplicateEmailIsRejected() {
+            User user = UserFaker.createClient();
+            User duplicate = new User("otherUsername", "secret", user.getEmail(), AddressFaker.createAddress(),
+                User.Role.client);
+            db.addUser(user);
+
+            assertFalse(db.addUser(duplicate));
+            assertNull(db.getUserByUsername("otherUsername"));
+            assertSame(user, db.getUserByEmail(user.getEmail()));
+            assertNull(db.getUser(duplicate.getId()));
+        }
+
+        @Test
+        @DisplayName("loaded users are indexed")
+        void loadedUsersAreIndexed() {
+            User user = db.getUserByUsername("AlirezaRR");
+
+            assertEquals("alireza@gmail.com", user.getEmail());
+            assertSame(user, db.getUser(user.getId()));
+            assertNull(db.getUserByUsername(null));
+        }
+    }
+
+    @Nested
+    class Restaurants {
+
+        @Test
+        @DisplayName("an added restaurant is found by id and name and listed last")
+        void addedRestaurantIsIndexed() {
+            Restaurant restaurant = RestaurantFaker.createRestaurant();
+            int size = db.getRestaurants().size();
+
+            assertTrue(db.addRestaurant(restaurant));
+            assertSame(restaurant, db.getRestaurant(restaurant.getId()));
+            assertSame(restaurant, db.getRestaurantByName(restaurant.getName()));
+            assertEquals(size + 1, db.getRestaurants().size());
+            assertSame(restaurant, db.getRestaurants().get(size));
+        }
+
+        @Test
+        @DisplayName("a restaurant with a taken name is rejected")
+        void duplicateNameIsRejected() {
+            Restaurant restaurant = RestaurantFaker.createRestaurant();
+            Restaurant duplicate = new Restaurant(restaurant.getName(), restaurant.getManager(), restaurant.getType(),
+                restaurant.getStartTime(), restaurant.getEndTime(), restaurant.getDescription(),
+                restaurant.getAddress(), restaurant.getImageLink());
+            db.addRestaurant(restaurant);
+            int size = db.getRestaurants().size();
+
+            assertFalse(db.addRestaurant(duplicate));
+            assertNull(db.getRestaurant(duplicate.getId()));
+            assertSame(restaurant, db.getRestaurantByName(restaurant.getName()));
+            assertEquals(size, db.getRestaurants().size());
+        }
+
+        @Test
+        @DisplayName("a listing is a snapshot unaffected by later additions")
+        void listingIsSnapshot() {
+            List<Restaurant> restaurants = db.getRestaurants();
+            int size = restaurants.size();
+
+            db.addRestaurant(RestaurantFaker.createRestaurant());
+
+            assertEquals(size, restaurants.size());
+            assertEquals(size + 1, db.getRestaurants().size());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package mizdooni.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import mizdooni.MizdooniApplication;
+import mizdooni.database.Database;
+import mizdooni.model.Restaurant;
+
+@Tag("load")
+public class VirtualThreadLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("mizdooni.load.clients", 10_000);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("mizdooni.load.requests", 5);
+
+    private record Result(long p50, long p99, long max, int failures) {
+    }
+
+    @Test
+    @DisplayName("p99 latency under concurrent clients: virtual threads vs platform threads")
+    void compareVirtualAndPlatformThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%d clients x %d requests%n", CLIENTS, REQUESTS_PER_CLIENT);
+        System.out.printf("platform threads: p50=%dus p99=%dus max=%dus failures=%d%n",
+            platform.p50(), platform.p99(), platform.max(), platform.failures());
+        System.out.printf("virtual threads:  p50=%dus p99=%dus max=%dus failures=%d%n",
+            virtual.p50(), virtual.p99(), virtual.max(), virtual.failures());
+
+        assertEquals(0, platform.failures());
+        assertEquals(0, virtual.failures());
+        assertTrue(platform.p99() > 0 && virtual.p99() > 0);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MizdooniApplication.class)
+                .run("--server.port=0",
+                    "--server.tomcat.max-connections=" + (CLIENTS + 1000),
+                    "--server.tomcat.accept-count=" + CLIENTS,
+                    "--spring.threads.virtual.enabled=" + virtualThreads)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port + "/api";
+            Restaurant restaurant = context.getBean(Database.class).getRestaurants().get(0);
+
+            HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+            login(client, baseUrl);
+
+            URI[] targets = {
+                URI.create(baseUrl + "/reserves/" + restaurant.getId() + "/available?people=2&date=" +
+                    LocalDate.now().plusDays(1)),
+                URI.create(baseUrl + "/restaurants/" + restaurant.getId()),
+            };
+            return measure(client, targets);
+        }
+    }
+
+    private void login(HttpClient client, String baseUrl) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"AlirezaRR\",\"password\":\"123456\"}"))
+            .build();
+        assertEquals(200, client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+    }
+
+    private Result measure(HttpClient client, URI[] targets) throws InterruptedException {
+        long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                int clientIndex = c;
+                executor.submit(() -> {
+                    start.await();
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        HttpRequest request = HttpRequest.newBuilder(targets[(clientIndex + r) % targets.length])
+                            .timeout(Duration.ofMinutes(2))
+                            .build();
+                        long begin = System.nanoTime();
+                        try {
+                            if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                                failures.incrementAndGet();
+                            }
+                        } catch (Exception ex) {
+                            failures.incrementAndGet();
+                        }
+                        latencies[clientIndex * REQUESTS_PER_CLIENT + r] = (System.nanoTime() - begin) / 1000;
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        Arrays.sort(latencies);
+        return new Result(percentile(latencies, 0.50), percentile(latencies, 0.99),
+            latencies[latencies.length - 1], failures.get());
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+}
@@ -167,5 +167,56 @@ class RestaurantTest {
         }
     }
 
-}
+    @Nested
+    class AverageRating {
+
+        @Test
+        @DisplayName("Should keep the average rating equal to the mean of the current reviews after replacements")
+        void shouldTrackAverageRating_whenReviewsAreReplaced() {
+            Restaurant restaurant = RestaurantFaker.createRestaurant();
+            List<User> clients = List.of(UserFaker.createClient(), UserFaker.createClient(), UserFaker.createClient());
+            for (int round = 0; round < 3; round++) {
+                for (User client : clients) {
+                    restaurant.addReview(ReviewFaker.createReview(client, RatingFaker.createRating()));
+                }
+            }
+
+            Rating expected = new Rating();
+            for (Review review : restaurant.getReviews()) {
+                expected.food += review.getRating().food / clients.size();
+                expected.service += review.getRating().service / clients.size();
+                expected.ambiance += review.getRating().ambiance / clients.size();
+                expected.overall += review.getRating().overall / clients.size();
+            }
+            Rating averageRating = restaurant.getAverageRating();
+            assertEquals(expected.food, averageRating.food, 1e-9);
+            assertEquals(expected.service, averageRating.service, 1e-9);
+            assertEquals(expected.ambiance, averageRating.ambiance, 1e-9);
+            assertEquals(expected.overall, averageRating.overall, 1e-9);
+        }
+    }
+
+    @Nested
+    class ReviewOrder {
 
+        @Test
+        @DisplayName("Should move a replaced review to the end without changing earlier review lists")
+        void shouldKeepInsertionOrder_whenReviewIsReplaced() {
+            Restaurant restaurant = RestaurantFaker.createRestaurant();
+            User client1 = UserFaker.createClient();
+            User client2 = UserFaker.createClient();
+            Review first = ReviewFaker.createReview(client1, RatingFaker.createRating());
+            Review second = ReviewFaker.createReview(client2, RatingFaker.createRating());
+            Review replacement = ReviewFaker.createReview(client1, RatingFaker.createRating());
+            restaurant.addReview(first);
+            restaurant.addReview(second);
+            List<Review> before = restaurant.getReviews();
+
+            restaurant.addReview(replacement);
+
+            assertEquals(List.of(first, second), before);
+            assertEquals(List.of(second, replacement), restaurant.getReviews());
+            assertEquals(2, restaurant.getReviewCount());
+        }
+    }
+}
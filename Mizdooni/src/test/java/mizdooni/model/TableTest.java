@@ -1,7 +1,10 @@
 package mizdooni.model;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -9,6 +12,7 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -69,5 +73,63 @@ public class TableTest {
             assertEquals(isReserved, table.isReserved(time));
         }
     }
-}
 
+    @Nested
+    class OccupiedHours {
+
+        private static final LocalDate DATE = LocalDate.parse("2024-10-20");
+
+        @Test
+        @DisplayName("Should set the hour bit of each active on-the-hour reservation on its date only")
+        void shouldSetHourBitsForReservations() {
+            Restaurant restaurant = RestaurantFaker.createRestaurant();
+            Table table = TableFaker.createTables(restaurant, 1).get(0);
+            User client = UserFaker.createClient();
+            ReservationFaker.createReservation(client, restaurant, table, DATE.atTime(12, 0));
+            ReservationFaker.createReservation(client, restaurant, table, DATE.atTime(20, 0));
+            ReservationFaker.createReservation(client, restaurant, table, DATE.atTime(15, 30));
+            ReservationFaker.createReservation(client, restaurant, table, DATE.plusDays(1).atTime(9, 0));
+
+            assertEquals(1L << 12 | 1L << 20, table.getOccupiedHours(DATE));
+            assertEquals(1L << 9, table.getOccupiedHours(DATE.plusDays(1)));
+            assertEquals(0, table.getOccupiedHours(DATE.minusDays(1)));
+            assertEquals(3, table.getReservations(DATE).size());
+        }
+
+        @Test
+        @DisplayName("Should clear the hour bit when the last active reservation of that hour is cancelled")
+        void shouldClearHourBitOnCancel() {
+            Restaurant restaurant = RestaurantFaker.createRestaurant();
+            Table table = TableFaker.createTables(restaurant, 1).get(0);
+            User client = UserFaker.createClient();
+            mizdooni.model.Reservation first =
+                ReservationFaker.createReservation(client, restaurant, table, DATE.atTime(18, 0));
+            mizdooni.model.Reservation second =
+                ReservationFaker.createReservation(client, restaurant, table, DATE.atTime(18, 0));
+
+            first.cancel();
+            assertEquals(1L << 18, table.getOccupiedHours(DATE));
+            assertTrue(table.isReserved(DATE.atTime(18, 0)));
+
+            second.cancel();
+            assertEquals(0, table.getOccupiedHours(DATE));
+            assertFalse(table.isReserved(DATE.atTime(18, 0)));
+        }
+
+        @Test
+        @DisplayName("Should return a snapshot of the reservations taken so far")
+        void shouldReturnReservationSnapshot() {
+            Restaurant restaurant = RestaurantFaker.createRestaurant();
+            Table table = TableFaker.createTables(restaurant, 1).get(0);
+            User client = UserFaker.createClient();
+            ReservationFaker.createReservation(client, restaurant, table, DATE.atTime(12, 0));
+            List<mizdooni.model.Reservation> reservations = table.getReservations();
+
+            ReservationFaker.createReservation(client, restaurant, table, DATE.atTime(13, 0));
+
+            assertEquals(1, reservations.size());
+            assertEquals(2, table.getReservations().size());
+            assertEquals(2, client.getReservations().size());
+        }
+    }
+}
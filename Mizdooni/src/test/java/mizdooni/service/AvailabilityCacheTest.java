@@ -0,0 +1,127 @@
+package mizdooni.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class AvailabilityCacheTest {
+
+    private static final LocalDate DATE = LocalDate.parse("2024-10-20");
+    private static final List<LocalTime> TIMES = List.of(LocalTime.of(12, 0), LocalTime.of(13, 0));
+
+    private AvailabilityCache cache;
+    private AtomicInteger loads;
+    private Supplier<List<LocalTime>> loader;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AvailabilityCache(2);
+        loads = new AtomicInteger();
+        loader = () -> {
+            loads.incrementAndGet();
+            return TIMES;
+        };
+    }
+
+    @Test
+    @DisplayName("Should load once per key and count hits and misses")
+    void shouldServeRepeatedReadsFromCache() {
+        assertEquals(TIMES, cache.get(1, DATE, 2, loader));
+        assertEquals(TIMES, cache.get(1, DATE, 2, loader));
+        assertEquals(TIMES, cache.get(1, DATE, 4, loader));
+
+        assertEquals(2, loads.get());
+        assertEquals(new AvailabilityCache.Stats(1, 2, 2), cache.getStats());
+    }
+
+    @Test
+    @DisplayName("Should invalidate only the given restaurant and date")
+    void shouldInvalidateRestaurantDate() {
+        cache.get(1, DATE, 2, loader);
+        cache.get(1, DATE.plusDays(1), 2, loader);
+
+        cache.invalidate(1, DATE);
+        cache.get(1, DATE, 2, loader);
+        cache.get(1, DATE.plusDays(1), 2, loader);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should invalidate every date of a restaurant")
+    void shouldInvalidateRestaurant() {
+        cache.get(1, DATE, 2, loader);
+        cache.get(2, DATE, 2, loader);
+
+        cache.invalidate(1);
+        cache.get(1, DATE, 2, loader);
+        cache.get(2, DATE, 2, loader);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used restaurant date when full")
+    void shouldEvictLeastRecentlyUsed() {
+        cache.get(1, DATE, 2, loader);
+        cache.get(2, DATE, 2, loader);
+        cache.get(1, DATE, 2, loader);
+        cache.get(3, DATE, 2, loader);
+
+        cache.get(1, DATE, 2, loader);
+        assertEquals(3, loads.get());
+        cache.get(2, DATE, 2, loader);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should load without holding a lock and drop a load raced by an invalidation")
+    void shouldDropLoadRacedByInvalidation() throws Exception {
+        Supplier<List<LocalTime>> racedLoader = () -> {
+            loads.incrementAndGet();
+            try {
+                CompletableFuture.runAsync(() -> cache.invalidate(1, DATE)).get(5, TimeUnit.SECONDS);
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+            return TIMES;
+        };
+
+        assertEquals(TIMES, cache.get(1, DATE, 2, racedLoader));
+        assertEquals(TIMES, cache.get(1, DATE, 2, loader));
+
+        assertEquals(2, loads.get());
+        assertEquals(new AvailabilityCache.Stats(0, 2, 1), cache.getStats());
+    }
+
+    @Test
+    @DisplayName("Should bound the number of cached time lists")
+    void shouldBoundCachedTimeLists() {
+        cache.get(1, DATE, 2, loader);
+        cache.get(1, DATE, 4, loader);
+        cache.get(1, DATE, 6, loader);
+
+        assertTrue(cache.getStats().size() <= 2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1})
+    @DisplayName("Should reject a non-positive size")
+    void shouldRejectNonPositiveSize(int size) {
+        assertThrows(IllegalArgumentException.class, () -> new AvailabilityCache(size));
+    }
+}
@@ -0,0 +1,134 @@
+package mizdooni.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import mizdooni.database.Database;
+import mizdooni.exceptions.TableNotFound;
+import mizdooni.model.Reservation;
+import mizdooni.model.Restaurant;
+import mizdooni.model.Table;
+import mizdooni.model.User;
+import mizdooni.utils.RestaurantFaker;
+import mizdooni.utils.TableFaker;
+import mizdooni.utils.UserFaker;
+
+@SpringBootTest
+public class ReservationServiceConcurrencyTest {
+
+    private static final int READERS = 16;
+    private static final int WRITERS = 16;
+    private static final int ITERATIONS = 1_000;
+
+    @Autowired
+    private Database db;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ReservationService reservationService;
+
+    private Restaurant restaurant;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        restaurant = RestaurantFaker.createRestaurant();
+        db.addRestaurant(restaurant);
+        for (int i = 0; i < 3; i++) {
+            TableFaker.createTable(restaurant, 4);
+        }
+        User client = UserFaker.createClient("secret");
+        db.addUser(client);
+        userService.login(client.getUsername(), "secret");
+        date = LocalDate.now().plusDays(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.logout();
+    }
+
+    @Test
+    @DisplayName("Should neither deadlock nor serve stale times when availability misses race bookings")
+    void shouldServeFreshTimesWhileBookingConcurrently() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(READERS + WRITERS);
+        for (int reader = 0; reader < READERS; reader++) {
+            int people = 2 + reader % 4;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    reservationService.getAvailableTimes(restaurant.getId(), people, date);
+                }
+                return null;
+            }));
+        }
+        for (int writer = 0; writer < WRITERS; writer++) {
+            int firstHour = writer % 14;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    try {
+                        Reservation reservation = reservationService.reserveTable(restaurant.getId(), 2,
+                            date.atTime(9 + (firstHour + i) % 14, 0));
+                        if (i % 2 == 0) {
+                            reservationService.cancelReservation(reservation.getReservationNumber());
+                        }
+                    } catch (TableNotFound ex) {
+                        // every table is already booked at this hour
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS), "availability reads and bookings deadlocked");
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        for (Table table : restaurant.getTables()) {
+            Set<LocalTime> booked = new HashSet<>();
+            for (Reservation reservation : table.getReservations()) {
+                assertTrue(reservation.isCancelled() || booked.add(reservation.getDateTime().toLocalTime()),
+                    "table booked twice at one time");
+            }
+        }
+        assertEquals(expectedAvailableTimes(2), reservationService.getAvailableTimes(restaurant.getId(), 2, date));
+    }
+
+    private List<LocalTime> expectedAvailableTimes(int people) {
+        List<LocalTime> times = new ArrayList<>();
+        for (int hour = restaurant.getStartTime().getHour(); hour <= restaurant.getEndTime().getHour(); hour++) {
+            LocalTime time = LocalTime.of(hour, 0);
+            if (restaurant.getTables().stream()
+                    .anyMatch(table -> table.getSeatsNumber() >= people && !table.isReserved(date.atTime(time)))) {
+                times.add(time);
+            }
+        }
+        return times;
+    }
+}